@@ -0,0 +1,81 @@
+package com.health.tracker.benchmarks;
+
+import com.health.tracker.config.RepositoryAdmissionLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// A burst of dashboard-style requests, each doing a remote wait outside the database and then
+// one admission-limited repository call, on Tomcat's default 200 platform threads versus one
+// virtual thread per request. Each op is the whole burst, so SampleTime reports the makespan
+// distribution (p50/p95/p99) and requests / score gives throughput.
+// The virtual executor needs a Java 21+ JVM; on Java 17 those runs fail and are skipped.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdmissionBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String executor;
+
+    @Param({"2000"})
+    private int requests;
+
+    // Round trips to the remote MySQL and to everything else a request waits on
+    @Param({"2"})
+    private int dbMillis;
+
+    @Param({"5"})
+    private int ioMillis;
+
+    private ExecutorService requestThreads;
+    private RepositoryAdmissionLimiter limiter;
+
+    @Setup
+    public void setUp() throws Exception {
+        requestThreads = executor.equals("virtual")
+                ? (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null)
+                : Executors.newFixedThreadPool(200);
+        limiter = new RepositoryAdmissionLimiter(true, 10, 60_000);
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<Integer>> responses = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            responses.add(requestThreads.submit(this::request));
+        }
+        int completed = 0;
+        for (Future<Integer> response : responses) {
+            completed += response.get();
+        }
+        return completed;
+    }
+
+    private int request() throws Exception {
+        Thread.sleep(ioMillis);
+        try {
+            return limiter.call(() -> {
+                Thread.sleep(dbMillis);
+                return 1;
+            });
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        requestThreads.shutdownNow();
+    }
+}
@@ -0,0 +1,143 @@
+package com.health.tracker.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Per-call cost of a daily calories-consumed total, over JDBC against H2 in MySQL mode. As in
+// HealthMetricWriteBenchmark, rttMicros is paid for every message sent to the server.
+//   procedure     - former path: CALL GetTotalCaloriesConsumed(?, ?) through a native query.
+//                   The procedure is an H2 Java alias running the same SUM over the
+//                   (user_id, date) index. A CALL is never found in the statement cache, so
+//                   each call prepares and executes: two round trips.
+//   indexedSelect - AggregateService: the SUM as a prepared SELECT, kept in the driver's
+//                   statement cache and answered from the (user_id, date, calories) index
+//   rollup        - the fallback: primary-key lookup in daily_activity_rollup
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AggregateBenchmark {
+
+    private static final int USERS = 1000;
+    private static final int DAYS = 30;
+    private static final int MEALS_PER_DAY = 4;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+    @Param({"0", "500"})
+    private int rttMicros;
+
+    private Connection connection;
+    private PreparedStatement cachedSelect;
+    private PreparedStatement cachedRollup;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:aggregates;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("CREATE TABLE meal (meal_id INT AUTO_INCREMENT PRIMARY KEY, user_id INT, date DATE, " +
+                    "food_items VARCHAR(255), calories_consumed DOUBLE)");
+            statement.execute("CREATE INDEX idx_meal_user_date ON meal(user_id, date)");
+            statement.execute("CREATE INDEX idx_meal_user_date_calories ON meal(user_id, date, calories_consumed)");
+            statement.execute("CREATE TABLE daily_activity_rollup (user_id INT, date DATE, meal_count INT, " +
+                    "calories_consumed DOUBLE, exercise_count INT, exercise_minutes INT, calories_burned DOUBLE, " +
+                    "PRIMARY KEY (user_id, date))");
+            statement.execute("CREATE ALIAS GetTotalCaloriesConsumed FOR \"" +
+                    AggregateBenchmark.class.getName() + ".totalCaloriesConsumed\"");
+        }
+        try (PreparedStatement meals = connection.prepareStatement(
+                "INSERT INTO meal (user_id, date, food_items, calories_consumed) VALUES (?, ?, 'Rice and curry', ?)");
+             PreparedStatement rollups = connection.prepareStatement(
+                     "INSERT INTO daily_activity_rollup VALUES (?, ?, ?, ?, 0, 0, 0)")) {
+            for (int id = 1; id <= USERS; id++) {
+                for (int d = 0; d < DAYS; d++) {
+                    Date date = Date.valueOf(FIRST_DAY.plusDays(d));
+                    for (int m = 0; m < MEALS_PER_DAY; m++) {
+                        meals.setInt(1, id);
+                        meals.setDate(2, date);
+                        meals.setDouble(3, 400 + m * 50);
+                        meals.addBatch();
+                    }
+                    rollups.setInt(1, id);
+                    rollups.setDate(2, date);
+                    rollups.setInt(3, MEALS_PER_DAY);
+                    rollups.setDouble(4, MEALS_PER_DAY * 475);
+                    rollups.addBatch();
+                }
+                meals.executeBatch();
+            }
+            rollups.executeBatch();
+        }
+        // Prepared once, as the driver's statement cache does for a repeated SELECT
+        cachedSelect = connection.prepareStatement(
+                "SELECT COALESCE(SUM(calories_consumed), 0) FROM meal WHERE user_id = ? AND date = ?");
+        cachedRollup = connection.prepareStatement(
+                "SELECT calories_consumed FROM daily_activity_rollup WHERE user_id = ? AND date = ?");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    // Body of the procedure; H2 passes its own connection first
+    public static double totalCaloriesConsumed(Connection conn, int userId, Date date) throws SQLException {
+        try (PreparedStatement query = conn.prepareStatement(
+                "SELECT COALESCE(SUM(calories_consumed), 0) FROM meal USE INDEX (idx_meal_user_date) " +
+                        "WHERE user_id = ? AND date = ?")) {
+            query.setInt(1, userId);
+            query.setDate(2, date);
+            try (ResultSet rs = query.executeQuery()) {
+                rs.next();
+                return rs.getDouble(1);
+            }
+        }
+    }
+
+    @Benchmark
+    public double procedure() throws SQLException {
+        roundTrip();
+        try (PreparedStatement call = connection.prepareStatement("CALL GetTotalCaloriesConsumed(?, ?)")) {
+            return execute(call);
+        }
+    }
+
+    @Benchmark
+    public double indexedSelect() throws SQLException {
+        return execute(cachedSelect);
+    }
+
+    @Benchmark
+    public double rollup() throws SQLException {
+        return execute(cachedRollup);
+    }
+
+    private double execute(PreparedStatement statement) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        statement.setInt(1, 1 + random.nextInt(USERS));
+        statement.setDate(2, Date.valueOf(FIRST_DAY.plusDays(random.nextInt(DAYS))));
+        roundTrip();
+        try (ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? rs.getDouble(1) : 0;
+        }
+    }
+
+    private void roundTrip() {
+        if (rttMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(rttMicros));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.health.tracker.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Same command line as the stock JMH main, with the GC profiler always on so every
+// result reports gc.alloc.rate.norm (bytes allocated per operation)
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,42 @@
+package com.health.tracker.benchmarks;
+
+import com.health.tracker.service.JwtService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.function.Function;
+
+// Wires services by hand: no Spring context and no database in the measured path
+final class Fixtures {
+
+    static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+    static final String EMAIL = "jane.doe@example.com";
+    static final String ROLE = "USER";
+
+    private Fixtures() {
+    }
+
+    static JwtService jwtService() {
+        JwtService jwtService = new JwtService(SECRET);
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        return jwtService;
+    }
+
+    static void inject(Object target, String field, Object value) {
+        ReflectionTestUtils.setField(target, field, value);
+    }
+
+    // Repository stub that answers one query method and fails on anything else
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, String method, Function<Object[], Object> answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, m, args) -> {
+            if (m.getName().equals(method)) {
+                return answer.apply(args);
+            }
+            if (m.getDeclaringClass() == Object.class) {
+                return m.getName().equals("toString") ? type.getSimpleName() + " stub" : m.invoke(type, args);
+            }
+            throw new UnsupportedOperationException(m.getName());
+        });
+    }
+}
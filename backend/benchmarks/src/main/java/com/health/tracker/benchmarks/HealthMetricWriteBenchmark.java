@@ -0,0 +1,275 @@
+package com.health.tracker.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Statement sequence of HealthMetricService.recordHealthMetric, run over JDBC against H2 in
+// MySQL mode. H2 is in-process, so every statement (and every commit) first pays rttMicros to
+// stand in for the round trip to the remote MySQL; with rttMicros=0 only the SQL work is left.
+//   original        - findById, save(metric), save(user): three auto-commit transactions
+//   lockedEntity    - one transaction: SELECT ... FOR UPDATE on the user, two neighbour
+//                     lookups, insert, full users update, snapshot delete
+//   singleTransaction - current path: partial users update (also the lock), one neighbour
+//                     query, insert, snapshot patch; height comes from the profile cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 8, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HealthMetricWriteBenchmark {
+
+    private static final int USERS = 1000;
+
+    // Readings per user seeded before each iteration; tables are rebuilt so history length stays fixed
+    private static final int HISTORY_DAYS = 100;
+
+    @Param({"0", "500"})
+    private int rttMicros;
+
+    private Connection connection;
+    private LocalDate day;
+
+    @Setup(Level.Trial)
+    public void open() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:writes;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() throws SQLException {
+        connection.setAutoCommit(true);
+        day = LocalDate.of(2025, 1, 1).plusDays(HISTORY_DAYS);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("CREATE TABLE users (user_id INT PRIMARY KEY, name VARCHAR(100), email VARCHAR(100), " +
+                    "contact VARCHAR(20), age INT, weight FLOAT, height FLOAT, role VARCHAR(20), password VARCHAR(100), " +
+                    "active BOOLEAN, refresh_token VARCHAR(500))");
+            statement.execute("CREATE TABLE health_metric (metric_id INT AUTO_INCREMENT PRIMARY KEY, user_id INT, " +
+                    "date DATE, weight FLOAT, bmi FLOAT, bmi_category VARCHAR(20), previous_weight FLOAT, weight_change FLOAT)");
+            statement.execute("CREATE INDEX idx_healthmetric_user_date ON health_metric(user_id, date)");
+            statement.execute("CREATE TABLE user_profile_snapshot (user_id INT PRIMARY KEY, current_weight FLOAT, " +
+                    "last_bmi_recorded FLOAT, bmi_category VARCHAR(20))");
+        }
+        try (PreparedStatement users = connection.prepareStatement(
+                "INSERT INTO users VALUES (?, 'Jane Doe', ?, '0770000000', 34, 72.5, 175, 'USER', 'hash', TRUE, NULL)");
+             PreparedStatement snapshots = connection.prepareStatement(
+                     "INSERT INTO user_profile_snapshot VALUES (?, 72.5, 23.7, 'Normal')")) {
+            for (int id = 1; id <= USERS; id++) {
+                users.setInt(1, id);
+                users.setString(2, "user" + id + "@example.com");
+                users.addBatch();
+                snapshots.setInt(1, id);
+                snapshots.addBatch();
+            }
+            users.executeBatch();
+            snapshots.executeBatch();
+        }
+        try (PreparedStatement history = connection.prepareStatement("INSERT INTO health_metric " +
+                "(user_id, date, weight, bmi, bmi_category) VALUES (?, ?, 72.5, 23.7, 'Normal')")) {
+            for (int id = 1; id <= USERS; id++) {
+                for (int d = 0; d < HISTORY_DAYS; d++) {
+                    history.setInt(1, id);
+                    history.setDate(2, Date.valueOf(day.minusDays(HISTORY_DAYS - d)));
+                    history.addBatch();
+                }
+            }
+            history.executeBatch();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int original() throws SQLException {
+        int userId = nextUser();
+        connection.setAutoCommit(true);
+        float height;
+        try (PreparedStatement find = prepare("SELECT * FROM users WHERE user_id = ?")) {
+            find.setInt(1, userId);
+            try (ResultSet rs = find.executeQuery()) {
+                rs.next();
+                height = rs.getFloat("height");
+            }
+        }
+        float weight = nextWeight();
+        int inserted = insert(userId, weight, bmi(weight, height), null);
+        try (PreparedStatement update = prepare("UPDATE users SET name = ?, email = ?, contact = ?, age = ?, " +
+                "weight = ?, height = ?, role = ?, password = ?, active = ?, refresh_token = ? WHERE user_id = ?")) {
+            update.setString(1, "Jane Doe");
+            update.setString(2, "user" + userId + "@example.com");
+            update.setString(3, "0770000000");
+            update.setInt(4, 34);
+            update.setFloat(5, weight);
+            update.setFloat(6, height);
+            update.setString(7, "USER");
+            update.setString(8, "hash");
+            update.setBoolean(9, true);
+            update.setString(10, null);
+            update.setInt(11, userId);
+            update.executeUpdate();
+        }
+        return inserted;
+    }
+
+    @Benchmark
+    public int lockedEntity() throws SQLException {
+        int userId = nextUser();
+        connection.setAutoCommit(false);
+        float height;
+        try (PreparedStatement lock = prepare("SELECT * FROM users WHERE user_id = ? FOR UPDATE")) {
+            lock.setInt(1, userId);
+            try (ResultSet rs = lock.executeQuery()) {
+                rs.next();
+                height = rs.getFloat("height");
+            }
+        }
+        Float previous = neighbourWeight("SELECT weight FROM health_metric WHERE user_id = ? AND date <= ? " +
+                "ORDER BY date DESC, metric_id DESC LIMIT 1", userId);
+        neighbourWeight("SELECT weight FROM health_metric WHERE user_id = ? AND date > ? " +
+                "ORDER BY date, metric_id LIMIT 1", userId);
+        float weight = nextWeight();
+        int inserted = insert(userId, weight, bmi(weight, height), previous);
+        try (PreparedStatement update = prepare("UPDATE users SET name = ?, email = ?, contact = ?, age = ?, " +
+                "weight = ?, height = ?, role = ?, password = ?, active = ?, refresh_token = ? WHERE user_id = ?")) {
+            update.setString(1, "Jane Doe");
+            update.setString(2, "user" + userId + "@example.com");
+            update.setString(3, "0770000000");
+            update.setInt(4, 34);
+            update.setFloat(5, weight);
+            update.setFloat(6, height);
+            update.setString(7, "USER");
+            update.setString(8, "hash");
+            update.setBoolean(9, true);
+            update.setString(10, null);
+            update.setInt(11, userId);
+            update.executeUpdate();
+        }
+        try (PreparedStatement delete = prepare("DELETE FROM user_profile_snapshot WHERE user_id = ?")) {
+            delete.setInt(1, userId);
+            delete.executeUpdate();
+        }
+        // Keep the snapshot table populated for the next run
+        try (PreparedStatement restore = connection.prepareStatement(
+                "INSERT INTO user_profile_snapshot VALUES (?, 72.5, 23.7, 'Normal')")) {
+            restore.setInt(1, userId);
+            restore.executeUpdate();
+        }
+        commit();
+        return inserted;
+    }
+
+    @Benchmark
+    public int singleTransaction() throws SQLException {
+        int userId = nextUser();
+        connection.setAutoCommit(false);
+        // Height from the profile cache: no statement
+        float height = 175;
+        float weight = nextWeight();
+        try (PreparedStatement update = prepare("UPDATE users SET weight = CASE WHEN EXISTS (" +
+                "SELECT 1 FROM health_metric WHERE user_id = ? AND date > ?) THEN weight ELSE ? END WHERE user_id = ?")) {
+            update.setInt(1, userId);
+            update.setDate(2, Date.valueOf(day));
+            update.setFloat(3, weight);
+            update.setInt(4, userId);
+            update.executeUpdate();
+        }
+        Float previous = null;
+        try (PreparedStatement neighbours = prepare("(SELECT * FROM health_metric WHERE user_id = ? AND date <= ? " +
+                "ORDER BY date DESC, metric_id DESC LIMIT 1) UNION ALL " +
+                "(SELECT * FROM health_metric WHERE user_id = ? AND date > ? ORDER BY date, metric_id LIMIT 1)")) {
+            neighbours.setInt(1, userId);
+            neighbours.setDate(2, Date.valueOf(day));
+            neighbours.setInt(3, userId);
+            neighbours.setDate(4, Date.valueOf(day));
+            try (ResultSet rs = neighbours.executeQuery()) {
+                while (rs.next()) {
+                    previous = rs.getFloat("weight");
+                }
+            }
+        }
+        float bmi = bmi(weight, height);
+        int inserted = insert(userId, weight, bmi, previous);
+        try (PreparedStatement patch = prepare("UPDATE user_profile_snapshot SET current_weight = ?, " +
+                "last_bmi_recorded = ?, bmi_category = ? WHERE user_id = ?")) {
+            patch.setFloat(1, weight);
+            patch.setFloat(2, bmi);
+            patch.setString(3, "Normal");
+            patch.setInt(4, userId);
+            patch.executeUpdate();
+        }
+        commit();
+        return inserted;
+    }
+
+    private int insert(int userId, float weight, float bmi, Float previous) throws SQLException {
+        try (PreparedStatement insert = prepare("INSERT INTO health_metric " +
+                "(user_id, date, weight, bmi, bmi_category, previous_weight, weight_change) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            insert.setInt(1, userId);
+            insert.setDate(2, Date.valueOf(day));
+            insert.setFloat(3, weight);
+            insert.setFloat(4, bmi);
+            insert.setString(5, "Normal");
+            insert.setObject(6, previous);
+            insert.setObject(7, previous != null ? weight - previous : null);
+            return insert.executeUpdate();
+        }
+    }
+
+    private Float neighbourWeight(String sql, int userId) throws SQLException {
+        try (PreparedStatement query = prepare(sql)) {
+            query.setInt(1, userId);
+            query.setDate(2, Date.valueOf(day));
+            try (ResultSet rs = query.executeQuery()) {
+                return rs.next() ? rs.getFloat(1) : null;
+            }
+        }
+    }
+
+    // Each statement sent to the server costs one round trip
+    private PreparedStatement prepare(String sql) throws SQLException {
+        roundTrip();
+        return connection.prepareStatement(sql);
+    }
+
+    private void commit() throws SQLException {
+        roundTrip();
+        connection.commit();
+    }
+
+    private void roundTrip() {
+        if (rttMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(rttMicros));
+        }
+    }
+
+    private int nextUser() {
+        // A new day now and then keeps each user's history growing in date order
+        if (ThreadLocalRandom.current().nextInt(USERS) == 0) {
+            day = day.plusDays(1);
+        }
+        return 1 + ThreadLocalRandom.current().nextInt(USERS);
+    }
+
+    private float nextWeight() {
+        return 70 + ThreadLocalRandom.current().nextFloat() * 5;
+    }
+
+    private static float bmi(float weight, float heightCentimetres) {
+        float meters = heightCentimetres / 100.0f;
+        return weight / (meters * meters);
+    }
+}
@@ -0,0 +1,69 @@
+package com.health.tracker.benchmarks;
+
+import com.health.tracker.config.JwtFilter;
+import com.health.tracker.dto.LoadUser;
+import com.health.tracker.dto.LoadUserRole;
+import com.health.tracker.service.JwtClaimsCache;
+import com.health.tracker.service.JwtService;
+import com.health.tracker.service.MyUserDetailService;
+import com.health.tracker.service.PrincipalCache;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// One authenticated request through JwtFilter. Claims and principals come from the warm
+// caches, as they do for every request after a user's first.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @Param({"false", "true"})
+    private boolean stateless;
+
+    private JwtFilter jwtFilter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = Fixtures.jwtService();
+
+        PrincipalCache principalCache = new PrincipalCache(true, 300, 10_000);
+        principalCache.put(Fixtures.EMAIL,
+                new LoadUser(1, Fixtures.EMAIL, "0700000000", "{noop}secret", LoadUserRole.USER, null));
+        MyUserDetailService userDetailService = new MyUserDetailService();
+        Fixtures.inject(userDetailService, "principalCache", principalCache);
+
+        jwtFilter = new JwtFilter();
+        Fixtures.inject(jwtFilter, "jwtService", jwtService);
+        Fixtures.inject(jwtFilter, "jwtClaimsCache", new JwtClaimsCache(jwtService, 10_000));
+        Fixtures.inject(jwtFilter, "userDetailService", userDetailService);
+        Fixtures.inject(jwtFilter, "stateless", stateless);
+
+        authorization = "Bearer " + jwtService.generateActiveToken(Fixtures.EMAIL, Fixtures.ROLE);
+    }
+
+    @Benchmark
+    public MockFilterChain doFilterInternal() throws ServletException, IOException {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1/profile");
+        request.addHeader("Authorization", authorization);
+        MockFilterChain chain = new MockFilterChain();
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain;
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,48 @@
+package com.health.tracker.benchmarks;
+
+import com.health.tracker.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+    private UserDetails userDetails;
+
+    @Setup
+    public void setUp() {
+        jwtService = Fixtures.jwtService();
+        token = jwtService.generateActiveToken(Fixtures.EMAIL, Fixtures.ROLE);
+        userDetails = User.withUsername(Fixtures.EMAIL).password("").authorities(Fixtures.ROLE).build();
+    }
+
+    @Benchmark
+    public String generateActiveToken() {
+        return jwtService.generateActiveToken(Fixtures.EMAIL, Fixtures.ROLE);
+    }
+
+    @Benchmark
+    public String extractUserName() {
+        return jwtService.extractUserName(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token, userDetails);
+    }
+
+    @Benchmark
+    public String extractRole() {
+        return jwtService.extractRole(token);
+    }
+}
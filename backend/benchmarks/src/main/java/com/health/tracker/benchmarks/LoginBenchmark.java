@@ -0,0 +1,75 @@
+package com.health.tracker.benchmarks;
+
+import com.health.tracker.dto.LoadUser;
+import com.health.tracker.dto.LoadUserRole;
+import com.health.tracker.dto.LoginRequest;
+import com.health.tracker.dto.TokenResponse;
+import com.health.tracker.repository.UserRepository;
+import com.health.tracker.service.AuthService;
+import com.health.tracker.service.MyUserDetailService;
+import com.health.tracker.service.PrincipalCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// Login load test: 32 concurrent clients calling AuthService.verifyUser, each waiting for its
+// tokens. The score is logins per second; with the principal cache warm and the repository
+// stubbed it is the password-hashing pool that sets the limit. Logins turned away by a full
+// pool fail the benchmark, so the queue is sized to the client count.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(32)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"10", "12"})
+    private int strength;
+
+    @Param({"2"})
+    private int hashThreads;
+
+    private AuthService authService;
+    private LoginRequest loginRequest;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(strength);
+
+        PrincipalCache principalCache = new PrincipalCache(true, 300, 10_000);
+        principalCache.put(Fixtures.EMAIL, new LoadUser(1, Fixtures.EMAIL, "0700000000",
+                passwordEncoder.encode(PASSWORD), LoadUserRole.USER, null));
+        MyUserDetailService userDetailService = new MyUserDetailService();
+        Fixtures.inject(userDetailService, "principalCache", principalCache);
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailService);
+        provider.setPasswordEncoder(passwordEncoder);
+
+        authService = new AuthService(hashThreads, 64);
+        Fixtures.inject(authService, "authenticationManager", new ProviderManager(provider));
+        Fixtures.inject(authService, "jwtService", Fixtures.jwtService());
+        Fixtures.inject(authService, "userRepo",
+                Fixtures.repository(UserRepository.class, "updateRefreshToken", args -> 1));
+
+        loginRequest = new LoginRequest();
+        loginRequest.setLogin(Fixtures.EMAIL);
+        loginRequest.setPassword(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        authService.shutdown();
+    }
+
+    @Benchmark
+    public TokenResponse login() {
+        return authService.verifyUser(loginRequest).join();
+    }
+}
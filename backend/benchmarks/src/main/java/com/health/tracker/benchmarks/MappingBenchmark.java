@@ -0,0 +1,136 @@
+package com.health.tracker.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.health.tracker.dto.HealthProgressRow;
+import com.health.tracker.dto.UserProfileDTO;
+import com.health.tracker.repository.HealthMetricRepository;
+import com.health.tracker.service.HealthMetricService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Row-to-response conversion in the service layer, with the repository answering from memory.
+// The legacy* benchmarks keep the old Object[] -> HashMap mapping as the point of comparison
+// for the typed projections and their hand-written serializers.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    // Configured like Spring Boot's auto-configured mapper
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private Object[] profileRow;
+    private UserProfileDTO profile;
+
+    @State(Scope.Benchmark)
+    public static class Progress {
+
+        @Param({"30", "365"})
+        private int rows;
+
+        private HealthMetricService healthMetricService;
+
+        // Shaped like health_progress_view: user_id, date, weight, BMI, bmi_category, previous_weight, weight_change
+        private List<Object[]> viewRows;
+
+        @Setup
+        public void setUp() {
+            viewRows = new ArrayList<>(rows);
+            List<HealthProgressRow> projected = new ArrayList<>(rows);
+            LocalDate day = LocalDate.of(2025, 1, 1);
+            for (int i = 0; i < rows; i++) {
+                float weight = 80 - i * 0.05f;
+                float bmi = weight / 3.0625f;
+                viewRows.add(new Object[]{1, Date.valueOf(day.minusDays(i)), weight, bmi,
+                        "Overweight", weight + 0.05f, new BigDecimal("-0.05")});
+                projected.add(new HealthProgressRow(rows - i, 1, day.minusDays(i), weight, bmi,
+                        "Overweight", i + 1 < rows ? -0.05f : null));
+            }
+
+            healthMetricService = new HealthMetricService();
+            Fixtures.inject(healthMetricService, "healthMetricRepository",
+                    Fixtures.repository(HealthMetricRepository.class, "findProgressByUserId", args -> projected));
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        profileRow = new Object[]{1, "Jane Doe", Fixtures.EMAIL, 34, 72.5f, 175.0f, 23.7f, "Normal"};
+        profile = new UserProfileDTO(profileRow);
+    }
+
+    @Benchmark
+    public List<HealthProgressRow> getHealthProgress(Progress progress) {
+        return progress.healthMetricService.getHealthProgress(1);
+    }
+
+    @Benchmark
+    public byte[] getHealthProgressJson(Progress progress) throws Exception {
+        return objectMapper.writeValueAsBytes(progress.healthMetricService.getHealthProgress(1));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> legacyHealthProgress(Progress progress) {
+        return legacyProgressMaps(progress.viewRows);
+    }
+
+    @Benchmark
+    public byte[] legacyHealthProgressJson(Progress progress) throws Exception {
+        return objectMapper.writeValueAsBytes(legacyProgressMaps(progress.viewRows));
+    }
+
+    @Benchmark
+    public UserProfileDTO userProfileDto() {
+        return new UserProfileDTO(profileRow);
+    }
+
+    @Benchmark
+    public byte[] userProfileJson() throws Exception {
+        return objectMapper.writeValueAsBytes(profile);
+    }
+
+    @Benchmark
+    public byte[] legacyUserProfileJson() throws Exception {
+        Map<String, Object> result = new HashMap<>();
+        result.put("userId", profile.getUserId());
+        result.put("name", profile.getName());
+        result.put("email", profile.getEmail());
+        result.put("age", profile.getAge());
+        result.put("currentWeight", profile.getCurrentWeight());
+        result.put("height", profile.getHeight());
+        result.put("lastBMIRecorded", profile.getLastBMIRecorded() != null ? profile.getLastBMIRecorded() : "Not recorded");
+        result.put("bmiCategory", profile.getBmiCategory() != null ? profile.getBmiCategory() : "Not calculated");
+        return objectMapper.writeValueAsBytes(result);
+    }
+
+    // HealthMetricService.getHealthProgress before typed projections
+    private static List<Map<String, Object>> legacyProgressMaps(List<Object[]> progressData) {
+        List<Map<String, Object>> progress = new ArrayList<>();
+        for (Object[] row : progressData) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("userId", row[0]);
+            record.put("date", row[1]);
+            record.put("weight", row[2]);
+            record.put("bmi", row[3]);
+            record.put("bmiCategory", row[4]);
+            record.put("weightChange", row.length > 6 ? row[6] : null);
+            progress.add(record);
+        }
+        return progress;
+    }
+}
@@ -0,0 +1,160 @@
+package com.health.tracker.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.health.tracker.config.JwtFilter;
+import com.health.tracker.config.logging.SamplingTurboFilter;
+import com.health.tracker.config.logging.SqlTraceTurboFilter;
+import com.health.tracker.dto.LoadUser;
+import com.health.tracker.dto.LoadUserRole;
+import com.health.tracker.service.JwtClaimsCache;
+import com.health.tracker.service.JwtService;
+import com.health.tracker.service.MyUserDetailService;
+import com.health.tracker.service.PrincipalCache;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+// Requests per second through JwtFilter and a handler that logs what a typical request did
+// before: one info line and three statements, each with its SQL and two bind values.
+//   off    - logging disabled, the cost of the request alone
+//   before - the former setup: every line written synchronously by the request thread,
+//            org.hibernate.SQL at DEBUG and bind values at TRACE
+//   after  - logback-spring.xml: the asynchronous appender, the info line sampled one in 100
+//            and SQL logged only for requests that asked for it (none here)
+// The appender writes to a temporary file, flushing each event as the console does.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger("com.health.tracker.service.MealService");
+    private static final Logger sqlLog = LoggerFactory.getLogger("org.hibernate.SQL");
+    private static final Logger bindLog = LoggerFactory.getLogger("org.hibernate.orm.jdbc.bind");
+
+    @Param({"off", "before", "after"})
+    private String logging;
+
+    private JwtFilter jwtFilter;
+    private String authorization;
+    private HttpServlet handler;
+    private File logFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("request-logging", ".log").toFile();
+        configureLogging();
+
+        JwtService jwtService = Fixtures.jwtService();
+        PrincipalCache principalCache = new PrincipalCache(true, 300, 10_000);
+        principalCache.put(Fixtures.EMAIL,
+                new LoadUser(1, Fixtures.EMAIL, "0700000000", "{noop}secret", LoadUserRole.USER, null));
+        MyUserDetailService userDetailService = new MyUserDetailService();
+        Fixtures.inject(userDetailService, "principalCache", principalCache);
+
+        jwtFilter = new JwtFilter();
+        Fixtures.inject(jwtFilter, "jwtService", jwtService);
+        Fixtures.inject(jwtFilter, "jwtClaimsCache", new JwtClaimsCache(jwtService, 10_000));
+        Fixtures.inject(jwtFilter, "userDetailService", userDetailService);
+        authorization = "Bearer " + jwtService.generateActiveToken(Fixtures.EMAIL, Fixtures.ROLE);
+
+        handler = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                log.info(SamplingTurboFilter.SAMPLED, "Daily calorie intake for user {} on {}", 1, "2025-01-01");
+                for (int i = 1; i <= 3; i++) {
+                    sqlLog.debug("select m1_0.meal_id,m1_0.calories_consumed,m1_0.date from meal m1_0 " +
+                            "where m1_0.user_id=? and m1_0.date=?");
+                    bindLog.trace("binding parameter ({}:{}) <- [{}]", 1, "INTEGER", 1);
+                    bindLog.trace("binding parameter ({}:{}) <- [{}]", 2, "DATE", "2025-01-01");
+                }
+                response.setStatus(200);
+            }
+        };
+    }
+
+    private void configureLogging() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        ch.qos.logback.classic.Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        if (logging.equals("off")) {
+            root.setLevel(Level.OFF);
+            return;
+        }
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %5p [%t] [%X{requestId:-}] %-40.40logger{39} : %m%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.getAbsolutePath());
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> appender = file;
+        if (logging.equals("before")) {
+            context.getLogger("org.hibernate.SQL").setLevel(Level.DEBUG);
+            context.getLogger("org.hibernate.orm.jdbc.bind").setLevel(Level.TRACE);
+        } else {
+            SamplingTurboFilter sampling = new SamplingTurboFilter();
+            sampling.setContext(context);
+            sampling.start();
+            context.addTurboFilter(sampling);
+            SqlTraceTurboFilter sqlTrace = new SqlTraceTurboFilter();
+            sqlTrace.addLogger("org.hibernate.SQL");
+            sqlTrace.addLogger("org.hibernate.orm.jdbc.bind");
+            sqlTrace.setContext(context);
+            sqlTrace.start();
+            context.addTurboFilter(sqlTrace);
+
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            async.start();
+            appender = async;
+        }
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse request() throws ServletException, IOException {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/meals/1/daily-intake");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jwtFilter.doFilter(request, response, new MockFilterChain(handler));
+        return response;
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+        logFile.delete();
+    }
+}
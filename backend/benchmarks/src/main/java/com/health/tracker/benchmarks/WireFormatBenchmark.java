@@ -0,0 +1,94 @@
+package com.health.tracker.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.health.tracker.dto.MealColumns;
+import com.health.tracker.entity.Meal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Serialization time for a 10k-row meal history in each wire format. Payload sizes are
+// printed once per trial (look for "payload" in the run log).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    private final ObjectMapper json = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final ObjectMapper cbor = CBORMapper.builder().build()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private List<Meal> meals;
+
+    @Setup
+    public void setUp() throws IOException {
+        meals = new ArrayList<>(rows);
+        String[] names = {"Oatmeal", "Chicken salad", "Pasta", "Greek yogurt", "Salmon with rice"};
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            Meal meal = new Meal();
+            meal.setMealId(100_000 + i);
+            meal.setUserId(1);
+            meal.setMealName(names[i % names.length]);
+            meal.setCaloriesConsumed(350 + (i % 7) * 55.5f);
+            meal.setDate(day.minusDays(i / 3));
+            meals.add(meal);
+        }
+
+        System.out.printf("payload json=%d json+gzip=%d cbor-rows=%d cbor-columns=%d cbor-columns+gzip=%d bytes%n",
+                jsonRows().length, gzip(jsonRows()).length, cborRows().length,
+                cborColumns().length, gzip(cborColumns()).length);
+    }
+
+    @Benchmark
+    public byte[] jsonRows() throws IOException {
+        return json.writeValueAsBytes(meals);
+    }
+
+    @Benchmark
+    public byte[] jsonRowsGzip() throws IOException {
+        return gzip(jsonRows());
+    }
+
+    @Benchmark
+    public byte[] cborRows() throws IOException {
+        return cbor.writeValueAsBytes(meals);
+    }
+
+    @Benchmark
+    public byte[] cborColumns() throws IOException {
+        return cbor.writeValueAsBytes(MealColumns.of(1, meals));
+    }
+
+    @Benchmark
+    public byte[] cborColumnsGzip() throws IOException {
+        return gzip(cborColumns());
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
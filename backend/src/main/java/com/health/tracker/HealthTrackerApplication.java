@@ -1,11 +1,16 @@
 package com.health.tracker;
 
+import com.health.tracker.config.StartupReport;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class HealthTrackerApplication {
 	public static void main(String[] args) {
-		SpringApplication.run(HealthTrackerApplication.class, args);
+		SpringApplication application = new SpringApplication(HealthTrackerApplication.class);
+		StartupReport.configure(application, args);
+		application.run(args);
 	}
 }
@@ -0,0 +1,69 @@
+package com.health.tracker.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Takes a RepositoryAdmissionLimiter permit for every connection borrowed from the pool and
+// returns it when the connection is closed. Transactions, JdbcTemplate calls and Hibernate
+// sessions all borrow through here, so the limit covers every path to the database.
+public class AdmissionControlledDataSource extends DelegatingDataSource {
+
+    private final RepositoryAdmissionLimiter limiter;
+
+    public AdmissionControlledDataSource(DataSource target, RepositoryAdmissionLimiter limiter) {
+        super(target);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        RepositoryAdmissionLimiter.Permit permit = limiter.acquire();
+        try {
+            return admitted(obtainTargetDataSource().getConnection(), permit);
+        } catch (SQLException | RuntimeException | Error e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        RepositoryAdmissionLimiter.Permit permit = limiter.acquire();
+        try {
+            return admitted(obtainTargetDataSource().getConnection(username, password), permit);
+        } catch (SQLException | RuntimeException | Error e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    private Connection admitted(Connection connection, RepositoryAdmissionLimiter.Permit permit) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            try {
+                                connection.close();
+                            } finally {
+                                permit.close();
+                            }
+                            return null;
+                        default:
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                    }
+                });
+    }
+}
@@ -0,0 +1,12 @@
+package com.health.tracker.config;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when a request waited too long for a repository admission permit
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DatabaseBusyException extends RuntimeException {
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
@@ -1,14 +1,20 @@
 package com.health.tracker.config;
 
+import com.health.tracker.config.logging.SqlTraceTurboFilter;
+import com.health.tracker.service.JwtClaimsCache;
 import com.health.tracker.service.JwtService;
 import com.health.tracker.service.MyUserDetailService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,28 +22,67 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Configuration
 public class JwtFilter extends OncePerRequestFilter {
+
+    // Correlation id of the request, in every log line written on its thread (logging.pattern.correlation)
+    public static final String REQUEST_ID = "requestId";
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String TRACE_SQL_HEADER = "X-Trace-Sql";
+
+    // A caller's id is reused only when it cannot break a log line
+    private static final Pattern SAFE_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private JwtClaimsCache jwtClaimsCache;
+
     @Autowired
     private MyUserDetailService userDetailService;
 
+    // When true the principal is built from the verified token alone, skipping the account lookup
+    @Value("${auth.stateless:false}")
+    private boolean stateless;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !SAFE_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+        MDC.put(REQUEST_ID, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        try {
+            authenticate(request);
+            if (traceSql(request)) {
+                MDC.put(SqlTraceTurboFilter.MDC_KEY, "on");
+            }
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(SqlTraceTurboFilter.MDC_KEY);
+            MDC.remove(REQUEST_ID);
+        }
+    }
+
+    private void authenticate(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
 
         if(authHeader != null && authHeader.startsWith("Bearer ")){
             String token = authHeader.substring(7);
-            String userLogin = jwtService.extractUserName(token);
+            Claims claims = jwtClaimsCache.getVerifiedClaims(token);
+            String userLogin = claims.getSubject();
 
             if(userLogin != null && SecurityContextHolder.getContext().getAuthentication() == null){
-                UserDetails userDetails = userDetailService.loadUserByUsername(userLogin);
-                if(jwtService.validateToken(token, userDetails)){
-                    String role = jwtService.extractRole(token);
-
+                String role = jwtService.extractRole(claims);
+                UserDetails userDetails = stateless
+                        ? userDetailService.loadUserFromClaims(userLogin, role)
+                        : userDetailService.loadUserByUsername(userLogin);
+                if(jwtService.validateToken(claims, userDetails)){
                     UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails,
@@ -48,6 +93,16 @@ public class JwtFilter extends OncePerRequestFilter {
                 }
             }
         }
-        filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // SQL statements and bind values are logged for this request only; admins only, as
+    // they include other users' data
+    private boolean traceSql(HttpServletRequest request) {
+        if (!"true".equalsIgnoreCase(request.getHeader(TRACE_SQL_HEADER))) {
+            return false;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ADMIN".equals(authority.getAuthority()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.health.tracker.config;
+
+import com.health.tracker.service.AlertPurge;
+import com.health.tracker.service.AlertRuleEngine;
+import com.health.tracker.service.JwtService;
+import com.health.tracker.service.ResourceVersions;
+import com.health.tracker.service.writebehind.WriteBehindBuffer;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Beans still created at startup when spring.main.lazy-initialization is on (prod profile).
+// The alert worker and the version counters would otherwise be created by the first write
+// event, inside a committing request; the JWT beans are on the path of nearly every request.
+// The write-behind buffer replays its log at startup, not on the first meal or exercise, and
+// the alert purge is only scheduled once its bean exists.
+@Configuration
+public class LazyInitConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(AlertRuleEngine.class, ResourceVersions.class,
+                JwtService.class, JwtFilter.class, WriteBehindBuffer.class, AlertPurge.class);
+    }
+}
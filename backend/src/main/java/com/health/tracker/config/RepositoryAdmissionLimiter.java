@@ -0,0 +1,132 @@
+package com.health.tracker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Caps concurrent database connections at the size of the connection pool. With virtual threads
+// Tomcat no longer bounds concurrency, so thousands of requests can reach the database at once;
+// they park here on a fair semaphore instead of piling up inside Hikari, and give up with a 503
+// after db.admission.acquire-timeout-ms. The permit is taken when a connection is borrowed from
+// the DataSource (AdmissionControlledDataSource) and returned when it is closed, so a transaction
+// holds one from begin to commit or rollback, like the connection itself.
+@Component
+public class RepositoryAdmissionLimiter implements MeterBinder, BeanPostProcessor {
+
+    private final boolean enabled;
+    private final long acquireTimeoutMillis;
+    private final Semaphore permits;
+
+    // Permits held by the current thread. A thread that already holds one (a connection opened
+    // inside a transaction) does not wait again: it could deadlock against threads waiting for
+    // the permit it holds. The pool still bounds those extra connections.
+    private final ThreadLocal<AtomicInteger> held = ThreadLocal.withInitial(AtomicInteger::new);
+
+    private volatile Timer waitTimer;
+    private volatile Counter rejected;
+
+    public RepositoryAdmissionLimiter(@Value("${db.admission.enabled:true}") boolean enabled,
+                                      @Value("${db.admission.max-concurrent:10}") int maxConcurrent,
+                                      @Value("${db.admission.acquire-timeout-ms:5000}") long acquireTimeoutMillis) {
+        this.enabled = enabled;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource dataSource && !(bean instanceof AdmissionControlledDataSource)) {
+            return new AdmissionControlledDataSource(dataSource, this);
+        }
+        return bean;
+    }
+
+    public <T> T call(Call<T> call) throws Throwable {
+        try (Permit permit = acquire()) {
+            return call.run();
+        }
+    }
+
+    // Waits for a permit; the returned Permit gives it back when closed (once, from any thread)
+    public Permit acquire() {
+        AtomicInteger holding = held.get();
+        if (!enabled || holding.get() > 0) {
+            holding.incrementAndGet();
+            return new Permit(holding, null);
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseBusyException("Interrupted while waiting for the database");
+        }
+        Timer timer = waitTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            Counter counter = rejected;
+            if (counter != null) {
+                counter.increment();
+            }
+            throw new DatabaseBusyException("Database is busy, please retry");
+        }
+        holding.incrementAndGet();
+        return new Permit(holding, permits);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.admission.available", permits, Semaphore::availablePermits)
+                .register(registry);
+        Gauge.builder("db.admission.waiting", permits, Semaphore::getQueueLength)
+                .register(registry);
+        waitTimer = Timer.builder("db.admission.wait")
+                .publishPercentileHistogram()
+                .register(registry);
+        rejected = Counter.builder("db.admission.rejected")
+                .register(registry);
+    }
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T run() throws Throwable;
+    }
+
+    public static final class Permit implements AutoCloseable {
+
+        private final AtomicInteger holding;
+        private final Semaphore permits;
+        private boolean closed;
+
+        private Permit(AtomicInteger holding, Semaphore permits) {
+            this.holding = holding;
+            this.permits = permits;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            holding.decrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+}
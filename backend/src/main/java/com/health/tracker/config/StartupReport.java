@@ -0,0 +1,68 @@
+package com.health.tracker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+
+// Logs how long the JVM took to get ready to serve requests. With the "startup" profile the
+// application also records every startup step (bean instantiation, configuration parsing,
+// repository bootstrap...) and the slowest ones are logged here; the full timeline is served
+// by /actuator/startup.
+@Component
+public class StartupReport {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+
+    public static final String PROFILE = "startup";
+
+    private static final int STEP_CAPACITY = 20_000;
+    private static final int SLOWEST_STEPS = 25;
+
+    public static void configure(SpringApplication application, String[] args) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        if (environment.acceptsProfiles(Profiles.of(PROFILE))) {
+            application.setApplicationStartup(new BufferingApplicationStartup(STEP_CAPACITY));
+        }
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        log.info("Ready to serve requests {} ms after JVM start (context: {} ms)",
+                sinceJvmStart, event.getTimeTaken().toMillis());
+
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+            log.info("Slowest of {} startup steps:", events.size());
+            events.stream()
+                    .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                    .limit(SLOWEST_STEPS)
+                    .forEach(step -> log.info("  {} ms  {}", step.getDuration().toMillis(),
+                            describe(step.getStartupStep())));
+        }
+    }
+
+    private static String describe(StartupStep step) {
+        StringBuilder description = new StringBuilder(step.getName());
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals("beanName") || tag.getKey().equals("beanType")) {
+                description.append(' ').append(tag.getValue());
+            }
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package com.health.tracker.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps one in `rate` events logged with the SAMPLED marker, counted per logger, so events
+// that happen on every request still show up without one line per request. Warnings and
+// errors are never sampled. Configured in logback-spring.xml from logging.sampling.rate.
+public class SamplingTurboFilter extends TurboFilter {
+
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    private int rate = 100;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // A null format is an isXxxEnabled() check, which must not use up a sample
+        if (marker == null || format == null || !marker.contains(SAMPLED) || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (rate <= 1) {
+            return FilterReply.NEUTRAL;
+        }
+        long seen = counters.computeIfAbsent(logger.getName(), name -> new AtomicLong()).getAndIncrement();
+        return seen % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+}
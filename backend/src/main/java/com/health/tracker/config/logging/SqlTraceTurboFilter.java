@@ -0,0 +1,41 @@
+package com.health.tracker.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Turns on Hibernate's statement and bind-parameter logging for one request at a time: while
+// the MDC key is set on the current thread (JwtFilter sets it for an admin request carrying
+// X-Trace-Sql), debug and trace events of the listed loggers are accepted whatever their
+// level. Otherwise the configured levels apply, so SQL logging is off unless enabled globally.
+public class SqlTraceTurboFilter extends TurboFilter {
+
+    public static final String MDC_KEY = "sqlTrace";
+
+    private final List<String> loggers = new ArrayList<>();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level.isGreaterOrEqual(Level.INFO) || MDC.get(MDC_KEY) == null) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        for (String prefix : loggers) {
+            if (name.startsWith(prefix)) {
+                return FilterReply.ACCEPT;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    // One call per <logger> element in logback-spring.xml
+    public void addLogger(String logger) {
+        loggers.add(logger);
+    }
+}
@@ -0,0 +1,51 @@
+package com.health.tracker.config.migration;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// V4: drops the clear_old_alerts event created at every startup by earlier versions; read
+// alerts are purged by AlertPurge, which also bumps the alert versions behind the ETags.
+// DROP EVENT needs the EVENT privilege even when there is nothing to drop, so a refusal is
+// logged rather than failing startup.
+@Component
+public class AlertCleanupEventMigration implements JavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertCleanupEventMigration.class);
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("4");
+    }
+
+    @Override
+    public String getDescription() {
+        return "drop alert cleanup event";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) {
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.execute("DROP EVENT IF EXISTS clear_old_alerts");
+        } catch (SQLException e) {
+            log.warn("Could not drop event clear_old_alerts; it still deletes read alerts without " +
+                    "changing their ETags. Drop it with a user holding the EVENT privilege: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.health.tracker.config.migration;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// V5: the progress columns V6 and health_progress_view rely on. On databases created before
+// migrations, health_metric only got them from ddl-auto, which production never ran, and V1 is a
+// no-op there. Like IndexMigration, each column is checked in information_schema and only missing
+// ones are added.
+@Component
+public class HealthMetricColumnsMigration implements JavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(HealthMetricColumnsMigration.class);
+
+    // { column, definition }
+    private static final String[][] COLUMNS = {
+            {"previous_weight", "float(23)"},
+            {"weight_change", "float(23)"},
+            {"bmi_category", "varchar(255)"}
+    };
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("5");
+    }
+
+    @Override
+    public String getDescription() {
+        return "health metric progress columns";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        int added = 0;
+        // SCHEMA() is MySQL's synonym for DATABASE(), and H2 (used by the tests) knows it too
+        try (PreparedStatement exists = connection.prepareStatement(
+                "SELECT EXISTS(SELECT 1 FROM information_schema.columns " +
+                        "WHERE table_schema = SCHEMA() AND table_name = 'health_metric' AND column_name = ?)");
+             Statement ddl = connection.createStatement()) {
+            for (String[] column : COLUMNS) {
+                exists.setString(1, column[0]);
+                try (ResultSet rs = exists.executeQuery()) {
+                    rs.next();
+                    if (rs.getBoolean(1)) {
+                        continue;
+                    }
+                }
+                ddl.execute("ALTER TABLE health_metric ADD COLUMN " + column[0] + " " + column[1]);
+                added++;
+            }
+        }
+        log.info("health_metric progress columns: {} added, {} already existed", added, COLUMNS.length - added);
+    }
+}
@@ -0,0 +1,88 @@
+package com.health.tracker.config.migration;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// V2: secondary indexes. MySQL has no CREATE INDEX IF NOT EXISTS, and databases that ran
+// earlier versions already have most of these, so each one is checked in information_schema
+// first and only missing ones are built. Implements JavaMigration directly because
+// BaseJavaMigration only accepts V2__-style class names.
+@Component
+public class IndexMigration implements JavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexMigration.class);
+
+    // { table, index, columns }
+    private static final String[][] INDEXES = {
+            {"exercise", "idx_exercise_user_date", "`user_id`, `date`"},
+            {"meal", "idx_meal_user_date", "`user_id`, `date`"},
+            {"health_metric", "idx_healthmetric_user_date", "`user_id`, `date`"},
+
+            // Covering indexes: daily calorie totals are answered from the index alone
+            {"meal", "idx_meal_user_date_calories", "`user_id`, `date`, `calories_consumed`"},
+            {"exercise", "idx_exercise_user_date_calories", "`user_id`, `date`, `calories_burned`"},
+
+            {"exercise", "idx_exercise_user_id", "`user_id`"},
+            {"meal", "idx_meal_user_id", "`user_id`"},
+            {"health_metric", "idx_healthmetric_user_id", "`user_id`"},
+            {"exercise", "idx_exercise_date", "`date`"},
+            {"meal", "idx_meal_date", "`date`"},
+            {"health_metric", "idx_healthmetric_date", "`date`"},
+
+            {"account_login", "idx_account_login_account", "`role`, `account_id`"}
+    };
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("2");
+    }
+
+    @Override
+    public String getDescription() {
+        return "indexes";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        int created = 0;
+        try (PreparedStatement exists = connection.prepareStatement(
+                "SELECT EXISTS(SELECT 1 FROM information_schema.statistics " +
+                        "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?)");
+             Statement ddl = connection.createStatement()) {
+            for (String[] index : INDEXES) {
+                exists.setString(1, index[0]);
+                exists.setString(2, index[1]);
+                try (ResultSet rs = exists.executeQuery()) {
+                    rs.next();
+                    if (rs.getBoolean(1)) {
+                        continue;
+                    }
+                }
+                ddl.execute("CREATE INDEX " + index[1] + " ON " + index[0] + "(" + index[2] + ")");
+                created++;
+            }
+        }
+        log.info("Indexes: {} created, {} already existed", created, INDEXES.length - created);
+    }
+}
@@ -0,0 +1,69 @@
+package com.health.tracker.config.migration;
+
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Logs how long each migration took and, at the end, how many ran. On a schema that is up
+// to date no migration runs, so startup only pays for reading flyway_schema_history.
+@Component
+public class MigrationTimings implements Callback {
+
+    private static final Logger log = LoggerFactory.getLogger(MigrationTimings.class);
+
+    private long migrateStart;
+    private long stepStart;
+    private int applied;
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.BEFORE_MIGRATE || event == Event.BEFORE_EACH_MIGRATE
+                || event == Event.AFTER_EACH_MIGRATE || event == Event.AFTER_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        long now = System.nanoTime();
+        switch (event) {
+            case BEFORE_MIGRATE -> {
+                migrateStart = now;
+                applied = 0;
+            }
+            case BEFORE_EACH_MIGRATE -> stepStart = now;
+            case AFTER_EACH_MIGRATE -> {
+                applied++;
+                log.info("Migration {} took {} ms", describe(context), millis(now - stepStart));
+            }
+            case AFTER_MIGRATE -> log.info("Schema migrations: {} applied in {} ms", applied,
+                    millis(now - migrateStart));
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "migration-timings";
+    }
+
+    private static String describe(Context context) {
+        if (context.getMigrationInfo() == null) {
+            return "";
+        }
+        String version = context.getMigrationInfo().getVersion() != null
+                ? "V" + context.getMigrationInfo().getVersion() : "R";
+        return version + " " + context.getMigrationInfo().getDescription();
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
@@ -0,0 +1,61 @@
+package com.health.tracker.controller;
+
+import com.health.tracker.dto.ApiResponse;
+import com.health.tracker.service.DailyRollupService;
+import com.health.tracker.service.ProfileCache;
+import com.health.tracker.service.TrendService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "*")
+public class AdminController {
+
+    @Autowired
+    private DailyRollupService dailyRollupService;
+
+    @Autowired
+    private ProfileCache profileCache;
+
+    @Autowired
+    private TrendService trendService;
+
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildRollups() {
+        return ResponseEntity.ok(dailyRollupService.rebuildAll());
+    }
+
+    @PostMapping("/rollups/rebuild/{userId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Void> rebuildRollupsForUser(@PathVariable int userId) {
+        dailyRollupService.rebuildForUser(userId);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/caches/profile")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getProfileCacheStats() {
+        return ResponseEntity.ok(profileCache.getStats());
+    }
+
+    // Trends over every user with data in the range
+    @GetMapping("/trends")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<?> getCohortTrends(
+            @RequestParam(defaultValue = "week") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(trendService.getCohortTrends(granularity, from, to));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(new ApiResponse<String>(ex.getMessage(), null));
+        }
+    }
+}
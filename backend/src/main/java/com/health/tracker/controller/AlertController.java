@@ -1,11 +1,20 @@
 package com.health.tracker.controller;
 
+import com.health.tracker.dto.KeysetPage;
 import com.health.tracker.entity.Alert;
+import com.health.tracker.entity.AlertSetting;
 import com.health.tracker.service.AlertService;
+import com.health.tracker.service.ResourceVersions;
+import com.health.tracker.service.CalorieTimelineService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -16,16 +25,36 @@ public class AlertController {
     @Autowired
     private AlertService alertService;
 
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private ConditionalResponses conditionalResponses;
+
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
-    public List<Alert> getAlertsByUser(@PathVariable int userId) {
-        return alertService.getAlertsByUser(userId);
+    public ResponseEntity<List<Alert>> getAlertsByUser(@PathVariable int userId, WebRequest request) {
+        return conditionalResponses.get(request, userId,
+                () -> alertService.getAlertsByUser(userId), ResourceVersions.Resource.ALERTS);
     }
     
     @GetMapping("/user/{userId}/unread")
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
-    public List<Alert> getUnreadAlertsByUser(@PathVariable int userId) {
-        return alertService.getUnreadAlertsByUser(userId);
+    public ResponseEntity<List<Alert>> getUnreadAlertsByUser(@PathVariable int userId, WebRequest request) {
+        return conditionalResponses.get(request, userId,
+                () -> alertService.getUnreadAlertsByUser(userId), ResourceVersions.Resource.ALERTS);
+    }
+
+    @GetMapping("/user/{userId}/settings")
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public AlertSetting getAlertSetting(@PathVariable int userId) {
+        return alertService.getAlertSetting(userId);
+    }
+
+    @PutMapping("/user/{userId}/settings")
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public AlertSetting updateAlertSetting(@PathVariable int userId, @RequestBody AlertSetting settingDetails) {
+        return alertService.updateAlertSetting(userId, settingDetails);
     }
 
     @PutMapping("/{alertId}/read")
@@ -38,4 +67,33 @@ public class AlertController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    @GetMapping("/user/{userId}/page")
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<KeysetPage<Alert>> getAlertsPage(
+            @PathVariable int userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeDate,
+            @RequestParam(required = false) Integer beforeId,
+            @RequestParam(defaultValue = "50") int size) {
+        if (size < 1 || size > 500) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(alertService.getAlertsPage(userId,
+                from != null ? from : CalorieTimelineService.EARLIEST_DATE,
+                to != null ? to : CalorieTimelineService.LATEST_DATE,
+                beforeDate, beforeId, size));
+    }
+
+    @GetMapping(value = "/user/{userId}/export", produces = NdjsonExporter.APPLICATION_NDJSON)
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAlerts(
+            @PathVariable int userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate start = from != null ? from : CalorieTimelineService.EARLIEST_DATE;
+        LocalDate end = to != null ? to : CalorieTimelineService.LATEST_DATE;
+        return ndjsonExporter.<Alert>export(sink -> alertService.streamAlertsByUser(userId, start, end, sink));
+    }
 }
\ No newline at end of file
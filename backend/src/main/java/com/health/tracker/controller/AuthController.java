@@ -1,11 +1,16 @@
 package com.health.tracker.controller;
 
+import com.health.tracker.config.logging.SamplingTurboFilter;
 import com.health.tracker.dto.*;
 import com.health.tracker.entity.Admin;
 import com.health.tracker.entity.Users;
 import com.health.tracker.service.AuthService;
+import com.health.tracker.service.LoginBusyException;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,10 +22,14 @@ import org.springframework.security.core.AuthenticationException; // <-- NEW IMP
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
     @Autowired
     private AuthService authService;
 
@@ -84,31 +93,37 @@ public class AuthController {
         }
     }
 
+    // Completes asynchronously: the request thread is released while the password is checked
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest){
-        System.out.println("un: "+ loginRequest.getLogin());
-        try {
-            TokenResponse response = authService.verifyUser(loginRequest);
-            return ResponseEntity.ok(new ApiResponse<TokenResponse>("User Login Successfull.", response ));
-        } catch (AuthenticationException ex) { // <-- CATCH SPECIFIC AUTHENTICATION ERRORS
-            // Authentication failures like BadCredentialsException (wrong password)
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ApiResponse<String>("Error Login", "Invalid login credentials."));
-        } catch (IllegalArgumentException ex) {
-            // Bad request: invalid username/password or user not found (if thrown specifically by logic)
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<String>("Error Login", ex.getMessage()));
-        } catch (Exception ex) {
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest loginRequest){
+        log.info(SamplingTurboFilter.SAMPLED, "Login attempt");
+        return authService.verifyUser(loginRequest).handle((response, failure) -> {
+            if (failure == null) {
+                return ResponseEntity.ok(new ApiResponse<TokenResponse>("User Login Successfull.", response ));
+            }
+            Throwable ex = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            if (ex instanceof AuthenticationException) { // <-- CATCH SPECIFIC AUTHENTICATION ERRORS
+                // Authentication failures like BadCredentialsException (wrong password)
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ApiResponse<String>("Error Login", "Invalid login credentials."));
+            }
+            if (ex instanceof LoginBusyException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(new ApiResponse<String>("Error Login", ex.getMessage()));
+            }
+            if (ex instanceof IllegalArgumentException) {
+                // Bad request: invalid username/password or user not found (if thrown specifically by logic)
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<String>("Error Login", ex.getMessage()));
+            }
             // Internal server error for truly unexpected cases
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<String>("An unexpected error occurred: " + ex.getMessage(), null));
-        }
+        });
     }
 
     @PostMapping("/refresh-token")
     public ResponseEntity<?> refresh(@RequestBody Map<String, String> request){
         try {
             String refreshToken = request.get("refreshToken");
-            System.out.println(refreshToken);
             Map<String, String> res =  authService.getRefreshToken(refreshToken);
-            System.out.println(res);
             return ResponseEntity.ok(new ApiResponse<Map<String, String>>("success", res));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ApiResponse<String>("failed", e.getMessage()));
@@ -122,7 +137,7 @@ public class AuthController {
         String username = authentication.getName(); // usually the email/contact (subject)
         String role = authentication.getAuthorities().iterator().next().getAuthority();
 
-        System.out.println("Logout user: " + username + " | Role: " + role);
+        log.info("Logout ({})", role);
 
         try {
             Map<String, String> res = authService.logout(username, role);
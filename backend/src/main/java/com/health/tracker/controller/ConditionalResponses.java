@@ -0,0 +1,61 @@
+package com.health.tracker.controller;
+
+import com.health.tracker.service.ResourceVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+// Conditional GET for per-user resources: the ETag comes from ResourceVersions, so a matching
+// If-None-Match is answered with 304 before the body (and the database) is touched.
+@Component
+public class ConditionalResponses {
+
+    // Clients may store responses but must revalidate them on every use
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    public <T> ResponseEntity<T> get(WebRequest request, int userId, Supplier<T> body,
+                                     ResourceVersions.Resource... resources) {
+        return get(request, userId, null, body, resources);
+    }
+
+    // For URLs served in more than one format: each variant gets its own tag and caches vary by Accept
+    public <T> ResponseEntity<T> get(WebRequest request, int userId, String variant, Supplier<T> body,
+                                     ResourceVersions.Resource... resources) {
+        String etag = resourceVersions.etag(userId, resources);
+        if (variant != null) {
+            etag = etag.substring(0, etag.length() - 1) + "-" + variant + "\"";
+        }
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE_CONTROL)
+                    .varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_CONTROL)
+                .varyBy(HttpHeaders.ACCEPT).body(body.get());
+    }
+
+    // If-None-Match uses weak comparison, so a W/ prefix added by a proxy still matches
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
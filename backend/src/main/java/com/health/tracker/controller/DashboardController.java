@@ -0,0 +1,28 @@
+package com.health.tracker.controller;
+
+import com.health.tracker.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "*")
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    // Replaces the five calls the dashboard page used to make
+    @GetMapping("/{userId}")
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getDashboard(
+            @PathVariable int userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(dashboardService.getDashboard(userId, date != null ? date : LocalDate.now()));
+    }
+}
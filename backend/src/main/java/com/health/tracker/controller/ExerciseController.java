@@ -1,12 +1,24 @@
 package com.health.tracker.controller;
 
+import com.health.tracker.dto.ApiResponse;
+import com.health.tracker.dto.BatchResult;
+import com.health.tracker.dto.KeysetPage;
+import com.health.tracker.dto.ExerciseColumns;
 import com.health.tracker.entity.Exercise;
+import com.health.tracker.service.BatchIngestService;
+import com.health.tracker.service.CalorieTimelineService;
 import com.health.tracker.service.ExerciseService;
+import com.health.tracker.service.ResourceVersions;
+import com.health.tracker.service.writebehind.WriteBehindBuffer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -19,24 +31,62 @@ public class ExerciseController {
     @Autowired
     private ExerciseService exerciseService;
 
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private ConditionalResponses conditionalResponses;
+
+    @Autowired
+    private BatchIngestService batchIngestService;
+
+    @Autowired
+    private WriteBehindBuffer writeBehindBuffer;
+
     @PostMapping()
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
-    public Exercise logExercise(@RequestBody Exercise exercise) {
-        return exerciseService.logExercise(exercise);
+    public ResponseEntity<Exercise> logExercise(@RequestBody Exercise exercise) {
+        // 202 while it is only in the write-behind log: it has no id until the flush
+        if (writeBehindBuffer.offer(exercise)) {
+            return ResponseEntity.accepted().body(exercise);
+        }
+        return ResponseEntity.ok(exerciseService.logExercise(exercise));
+    }
+
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<?> ingestExercises(@RequestBody List<Exercise> exercises) {
+        try {
+            BatchResult result = batchIngestService.ingestExercises(exercises);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<String>(ex.getMessage(), null));
+        }
     }
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
-    public List<Exercise> getExercisesByUser(@PathVariable int userId) {
-        return exerciseService.getExercisesByUser(userId);
+    public ResponseEntity<List<Exercise>> getExercisesByUser(@PathVariable int userId, WebRequest request) {
+        return conditionalResponses.get(request, userId,
+                () -> exerciseService.getExercisesByUser(userId), ResourceVersions.Resource.EXERCISES);
+    }
+
+    // Same history as columns in CBOR, for clients sending Accept: application/cbor
+    @GetMapping(value = "/user/{userId}", produces = MediaType.APPLICATION_CBOR_VALUE)
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<ExerciseColumns> getExercisesByUserColumns(@PathVariable int userId, WebRequest request) {
+        return conditionalResponses.get(request, userId, "cbor",
+                () -> ExerciseColumns.of(userId, exerciseService.getExercisesByUser(userId)), ResourceVersions.Resource.EXERCISES);
     }
 
     @GetMapping("/user/{userId}/date/{date}")
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
-    public List<Exercise> getExercisesByUserAndDate(
+    public ResponseEntity<List<Exercise>> getExercisesByUserAndDate(
             @PathVariable int userId,
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return exerciseService.getExercisesByUserAndDate(userId, date);
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request) {
+        return conditionalResponses.get(request, userId,
+                () -> exerciseService.getExercisesByUserAndDate(userId, date), ResourceVersions.Resource.EXERCISES);
     }
 
     @GetMapping("/{exerciseId}")
@@ -72,8 +122,38 @@ public class ExerciseController {
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
     public ResponseEntity<Map<String, Object>> getDailyExerciseSummary(
             @PathVariable int userId,
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        Map<String, Object> summary = exerciseService.getDailyExerciseSummary(userId, date);
-        return ResponseEntity.ok(summary);
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request) {
+        return conditionalResponses.get(request, userId,
+                () -> exerciseService.getDailyExerciseSummary(userId, date), ResourceVersions.Resource.EXERCISES);
+    }
+
+    @GetMapping("/user/{userId}/page")
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<KeysetPage<Exercise>> getExercisesPage(
+            @PathVariable int userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate beforeDate,
+            @RequestParam(required = false) Integer beforeId,
+            @RequestParam(defaultValue = "50") int size) {
+        if (size < 1 || size > 500) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(exerciseService.getExercisesPage(userId,
+                from != null ? from : CalorieTimelineService.EARLIEST_DATE,
+                to != null ? to : CalorieTimelineService.LATEST_DATE,
+                beforeDate, beforeId, size));
+    }
+
+    @GetMapping(value = "/user/{userId}/export", produces = NdjsonExporter.APPLICATION_NDJSON)
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportExercises(
+            @PathVariable int userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate start = from != null ? from : CalorieTimelineService.EARLIEST_DATE;
+        LocalDate end = to != null ? to : CalorieTimelineService.LATEST_DATE;
+        return ndjsonExporter.<Exercise>export(sink -> exerciseService.streamExercisesByUser(userId, start, end, sink));
     }
 }
\ No newline at end of file
@@ -1,11 +1,26 @@
 package com.health.tracker.controller;
 
+import com.health.tracker.dto.ApiResponse;
+import com.health.tracker.dto.BatchResult;
+import com.health.tracker.dto.CalorieTimelineRow;
+import com.health.tracker.dto.HealthMetricColumns;
+import com.health.tracker.dto.HealthProgressRow;
+import com.health.tracker.dto.KeysetPage;
 import com.health.tracker.entity.HealthMetric;
+import com.health.tracker.service.BatchIngestService;
+import com.health.tracker.service.CalorieTimelineService;
 import com.health.tracker.service.HealthMetricService;
+import com.health.tracker.service.ResourceVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -17,16 +32,46 @@ public class HealthMetricController {
     @Autowired
     private HealthMetricService healthMetricService;
 
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private ConditionalResponses conditionalResponses;
+
+    @Autowired
+    private BatchIngestService batchIngestService;
+
     @PostMapping()
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
     public HealthMetric recordHealthMetric(@RequestBody HealthMetric healthMetric) {
         return healthMetricService.recordHealthMetric(healthMetric);
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<?> ingestHealthMetrics(@RequestBody List<HealthMetric> healthMetrics) {
+        try {
+            BatchResult result = batchIngestService.ingestHealthMetrics(healthMetrics);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<String>(ex.getMessage(), null));
+        }
+    }
+
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
-    public List<HealthMetric> getHealthMetricsByUser(@PathVariable int userId) {
-        return healthMetricService.getHealthMetricsByUser(userId);
+    public ResponseEntity<List<HealthMetric>> getHealthMetricsByUser(@PathVariable int userId, WebRequest request) {
+        return conditionalResponses.get(request, userId,
+                () -> healthMetricService.getHealthMetricsByUser(userId), ResourceVersions.Resource.HEALTH_METRICS);
+    }
+
+    // Same history as columns in CBOR, for clients sending Accept: application/cbor
+    @GetMapping(value = "/user/{userId}", produces = MediaType.APPLICATION_CBOR_VALUE)
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<HealthMetricColumns> getHealthMetricsByUserColumns(@PathVariable int userId, WebRequest request) {
+        return conditionalResponses.get(request, userId, "cbor",
+                () -> HealthMetricColumns.of(userId, healthMetricService.getHealthMetricsByUser(userId)),
+                ResourceVersions.Resource.HEALTH_METRICS);
     }
 
     @GetMapping("/user/{userId}/latest")
@@ -39,13 +84,80 @@ public class HealthMetricController {
 
     @GetMapping("/user/{userId}/progress")
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
-    public List<Map<String, Object>> getHealthProgress(@PathVariable int userId) {
-        return healthMetricService.getHealthProgress(userId);
+    public ResponseEntity<List<HealthProgressRow>> getHealthProgress(@PathVariable int userId, WebRequest request) {
+        return conditionalResponses.get(request, userId,
+                () -> healthMetricService.getHealthProgress(userId), ResourceVersions.Resource.HEALTH_METRICS);
+    }
+
+    @GetMapping("/user/{userId}/progress/page")
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<KeysetPage<HealthProgressRow>> getHealthProgressPage(
+            @PathVariable int userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate beforeDate,
+            @RequestParam(required = false) Integer beforeId,
+            @RequestParam(defaultValue = "50") int size) {
+        if (size < 1 || size > 500) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(healthMetricService.getHealthProgressPage(userId,
+                from != null ? from : CalorieTimelineService.EARLIEST_DATE,
+                to != null ? to : CalorieTimelineService.LATEST_DATE,
+                beforeDate, beforeId, size));
     }
 
     @GetMapping("/user/{userId}/calories_consumed_burned")
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
-    public List<Map<String, Object>> getCaloriesConsumedBurned(@PathVariable int userId) {
-        return healthMetricService.getCaloriesConsumedBurned(userId);
+    public ResponseEntity<List<CalorieTimelineRow>> getCaloriesConsumedBurned(@PathVariable int userId, WebRequest request) {
+        return conditionalResponses.get(request, userId,
+                () -> healthMetricService.getCaloriesConsumedBurned(userId),
+                ResourceVersions.Resource.MEALS, ResourceVersions.Resource.EXERCISES);
+    }
+
+    @GetMapping("/user/{userId}/calories-timeline")
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<List<CalorieTimelineRow>> getCaloriesTimeline(
+            @PathVariable int userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "31") int size,
+            WebRequest request) {
+        if (page < 0 || size < 1 || size > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+        return conditionalResponses.get(request, userId,
+                () -> healthMetricService.getCaloriesTimeline(userId, from, to, page, size),
+                ResourceVersions.Resource.MEALS, ResourceVersions.Resource.EXERCISES);
+    }
+
+    @GetMapping("/user/{userId}/page")
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<KeysetPage<HealthMetric>> getHealthMetricsPage(
+            @PathVariable int userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate beforeDate,
+            @RequestParam(required = false) Integer beforeId,
+            @RequestParam(defaultValue = "50") int size) {
+        if (size < 1 || size > 500) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(healthMetricService.getHealthMetricsPage(userId,
+                from != null ? from : CalorieTimelineService.EARLIEST_DATE,
+                to != null ? to : CalorieTimelineService.LATEST_DATE,
+                beforeDate, beforeId, size));
+    }
+
+    @GetMapping(value = "/user/{userId}/export", produces = NdjsonExporter.APPLICATION_NDJSON)
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportHealthMetrics(
+            @PathVariable int userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate start = from != null ? from : CalorieTimelineService.EARLIEST_DATE;
+        LocalDate end = to != null ? to : CalorieTimelineService.LATEST_DATE;
+        return ndjsonExporter.<HealthMetric>export(sink -> healthMetricService.streamHealthMetricsByUser(userId, start, end, sink));
     }
 }
\ No newline at end of file
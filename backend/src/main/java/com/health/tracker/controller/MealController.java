@@ -1,12 +1,24 @@
 package com.health.tracker.controller;
 
+import com.health.tracker.dto.ApiResponse;
+import com.health.tracker.dto.BatchResult;
+import com.health.tracker.dto.KeysetPage;
+import com.health.tracker.dto.MealColumns;
 import com.health.tracker.entity.Meal;
+import com.health.tracker.service.BatchIngestService;
+import com.health.tracker.service.CalorieTimelineService;
 import com.health.tracker.service.MealService;
+import com.health.tracker.service.ResourceVersions;
+import com.health.tracker.service.writebehind.WriteBehindBuffer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -19,24 +31,62 @@ public class MealController {
     @Autowired
     private MealService mealService;
 
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private ConditionalResponses conditionalResponses;
+
+    @Autowired
+    private BatchIngestService batchIngestService;
+
+    @Autowired
+    private WriteBehindBuffer writeBehindBuffer;
+
     @PostMapping()
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
-    public Meal logMeal(@RequestBody Meal meal) {
-        return mealService.logMeal(meal);
+    public ResponseEntity<Meal> logMeal(@RequestBody Meal meal) {
+        // 202 while it is only in the write-behind log: it has no id until the flush
+        if (writeBehindBuffer.offer(meal)) {
+            return ResponseEntity.accepted().body(meal);
+        }
+        return ResponseEntity.ok(mealService.logMeal(meal));
+    }
+
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<?> ingestMeals(@RequestBody List<Meal> meals) {
+        try {
+            BatchResult result = batchIngestService.ingestMeals(meals);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<String>(ex.getMessage(), null));
+        }
     }
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
-    public List<Meal> getMealsByUser(@PathVariable int userId) {
-        return mealService.getMealsByUser(userId);
+    public ResponseEntity<List<Meal>> getMealsByUser(@PathVariable int userId, WebRequest request) {
+        return conditionalResponses.get(request, userId,
+                () -> mealService.getMealsByUser(userId), ResourceVersions.Resource.MEALS);
+    }
+
+    // Same history as columns in CBOR, for clients sending Accept: application/cbor
+    @GetMapping(value = "/user/{userId}", produces = MediaType.APPLICATION_CBOR_VALUE)
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<MealColumns> getMealsByUserColumns(@PathVariable int userId, WebRequest request) {
+        return conditionalResponses.get(request, userId, "cbor",
+                () -> MealColumns.of(userId, mealService.getMealsByUser(userId)), ResourceVersions.Resource.MEALS);
     }
 
     @GetMapping("/user/{userId}/date/{date}")
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
-    public List<Meal> getMealsByUserAndDate(
+    public ResponseEntity<List<Meal>> getMealsByUserAndDate(
             @PathVariable int userId,
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return mealService.getMealsByUserAndDate(userId, date);
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request) {
+        return conditionalResponses.get(request, userId,
+                () -> mealService.getMealsByUserAndDate(userId, date), ResourceVersions.Resource.MEALS);
     }
 
     @GetMapping("/{mealId}")
@@ -72,8 +122,38 @@ public class MealController {
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
     public ResponseEntity<Map<String, Object>> getDailyCalorieIntake(
             @PathVariable int userId,
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        Map<String, Object> intake = mealService.getDailyCalorieIntake(userId, date);
-        return ResponseEntity.ok(intake);
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request) {
+        return conditionalResponses.get(request, userId,
+                () -> mealService.getDailyCalorieIntake(userId, date), ResourceVersions.Resource.MEALS);
+    }
+
+    @GetMapping("/user/{userId}/page")
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<KeysetPage<Meal>> getMealsPage(
+            @PathVariable int userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate beforeDate,
+            @RequestParam(required = false) Integer beforeId,
+            @RequestParam(defaultValue = "50") int size) {
+        if (size < 1 || size > 500) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(mealService.getMealsPage(userId,
+                from != null ? from : CalorieTimelineService.EARLIEST_DATE,
+                to != null ? to : CalorieTimelineService.LATEST_DATE,
+                beforeDate, beforeId, size));
+    }
+
+    @GetMapping(value = "/user/{userId}/export", produces = NdjsonExporter.APPLICATION_NDJSON)
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportMeals(
+            @PathVariable int userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate start = from != null ? from : CalorieTimelineService.EARLIEST_DATE;
+        LocalDate end = to != null ? to : CalorieTimelineService.LATEST_DATE;
+        return ndjsonExporter.<Meal>export(sink -> mealService.streamMealsByUser(userId, start, end, sink));
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.health.tracker.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+// Writes one JSON document per line while the source is still reading from the database,
+// so an export never holds more than one fetch batch in memory
+@Component
+public class NdjsonExporter {
+
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public <T> ResponseEntity<StreamingResponseBody> export(Consumer<Consumer<T>> source) {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .withRootValueSeparator("\n")
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .writeValues(out)) {
+                source.accept(item -> {
+                    try {
+                        writer.write(item);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            out.write('\n');
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON))
+                .body(body);
+    }
+}
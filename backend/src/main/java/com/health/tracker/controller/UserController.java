@@ -1,11 +1,20 @@
 package com.health.tracker.controller;
 
+import com.health.tracker.dto.ApiResponse;
+import com.health.tracker.dto.UserProfileDTO;
+import com.health.tracker.dto.UserSummary;
 import com.health.tracker.entity.Users;
+import com.health.tracker.service.ResourceVersions;
+import com.health.tracker.service.TrendService;
 import com.health.tracker.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.time.LocalDate;
 import java.util.Map;
 
 @RestController
@@ -16,19 +25,28 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TrendService trendService;
+
+    @Autowired
+    private ConditionalResponses conditionalResponses;
+
     @GetMapping("/{userId}")
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
-    public ResponseEntity<Map<String, String>> getUser(@PathVariable int userId) {
-        Map<String, String> user = userService.getUserById(userId);
-        return ResponseEntity.ok(user);
+    public ResponseEntity<UserSummary> getUser(@PathVariable int userId) {
+        return userService.getUserById(userId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @PutMapping("/{userId}")
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
-    public ResponseEntity<Users> updateUser(@PathVariable int userId, @RequestBody Users usersDetails) {
+    public ResponseEntity<?> updateUser(@PathVariable int userId, @RequestBody Users usersDetails) {
         try {
             Users updatedUsers = userService.updateUser(userId, usersDetails);
             return ResponseEntity.ok(updatedUsers);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<String>(ex.getMessage(), null));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -36,15 +54,36 @@ public class UserController {
 
     @GetMapping("/{userId}/profile")
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
-    public ResponseEntity<Map<String, Object>> getUserProfile(@PathVariable int userId) {
-        Map<String, Object> profile = userService.getUserProfile(userId);
+    public ResponseEntity<UserProfileDTO> getUserProfile(@PathVariable int userId) {
+        UserProfileDTO profile = userService.getUserProfile(userId);
         return ResponseEntity.ok(profile);
     }
 
+    @GetMapping("/{userId}/trends")
+    @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
+    public ResponseEntity<?> getTrends(
+            @PathVariable int userId,
+            @RequestParam(defaultValue = "week") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest request) {
+        try {
+            return conditionalResponses.get(request, userId,
+                    () -> trendService.getTrends(userId, granularity, from, to),
+                    ResourceVersions.Resource.MEALS, ResourceVersions.Resource.EXERCISES,
+                    ResourceVersions.Resource.HEALTH_METRICS);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(new ApiResponse<String>(ex.getMessage(), null));
+        }
+    }
+
     @GetMapping("/{userId}/bmi")
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
     public ResponseEntity<Map<String, Object>> calculateBMI(@PathVariable int userId) {
         Double bmi = userService.calculateBMI(userId);
+        if (bmi == null) {
+            return ResponseEntity.notFound().build();
+        }
         Map<String, Object> response = Map.of(
                 "userId", userId,
                 "bmi", bmi
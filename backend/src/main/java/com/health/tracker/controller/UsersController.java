@@ -1,7 +1,9 @@
 package com.health.tracker.controller;
 
+import com.health.tracker.dto.ApiResponse;
 import com.health.tracker.entity.Users;
 import com.health.tracker.repository.UserRepository;
+import com.health.tracker.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,7 +13,6 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 import java.lang.reflect.Method;
 
 @RestController
@@ -21,6 +22,9 @@ public class UsersController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserService userService;
+
     @GetMapping("/msg")
     public String msg() {
         return "Hello World";
@@ -34,8 +38,12 @@ public class UsersController {
 
     @PostMapping
     @PreAuthorize("hasAuthority('ADMIN')") // FIX: Require ADMIN authority to add users
-    public Users addUser(@RequestBody Users user) {
-        return userRepository.save(user);
+    public ResponseEntity<?> addUser(@RequestBody Users user) {
+        try {
+            return ResponseEntity.ok(userService.addUser(user));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<String>(ex.getMessage(), null));
+        }
     }
 
     // --- Authentication Endpoints (MOCK LOGIC REMOVED) ---
@@ -0,0 +1,48 @@
+package com.health.tracker.dto;
+
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+
+// The authenticated account as Spring Security sees it, plus the id and role the login
+// response needs, so nothing has to be looked up again after the password check
+public class AccountPrincipal extends User {
+    private final int id;
+    private final LoadUserRole role;
+    private final String email;
+    private final String contact;
+
+    public AccountPrincipal(LoadUser loadUser) {
+        this(loadUser.getId(), loadUser.getRole(), loadUser.getEmail(), loadUser.getContact(), loadUser.getPassword(),
+                loadUser.isActive());
+    }
+
+    // Inactive accounts are disabled, so Spring Security rejects them before the password check
+    private AccountPrincipal(int id, LoadUserRole role, String email, String contact, String password, boolean active) {
+        super(email != null ? email : contact, password, active, true, true, true,
+                AuthorityUtils.createAuthorityList("ROLE_" + role));
+        this.id = id;
+        this.role = role;
+        this.email = email;
+        this.contact = contact;
+    }
+
+    public AccountPrincipal withPassword(String password) {
+        return new AccountPrincipal(id, role, email, contact, password, isEnabled());
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public LoadUserRole getRole() {
+        return role;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getContact() {
+        return contact;
+    }
+}
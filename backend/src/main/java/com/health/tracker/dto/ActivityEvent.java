@@ -0,0 +1,48 @@
+package com.health.tracker.dto;
+
+import java.time.LocalDate;
+
+// Published after a meal/exercise/metric write commits; feeds AlertRuleEngine
+public class ActivityEvent {
+
+    public enum Type {
+        MEALS,
+        EXERCISES,
+        HEALTH_METRIC
+    }
+
+    private final Type type;
+    private final int userId;
+    private final LocalDate date;
+    // Signed: deletions carry negative counts and calories
+    private final int count;
+    private final double calories;
+
+    public ActivityEvent(Type type, int userId, LocalDate date, int count, double calories) {
+        this.type = type;
+        this.userId = userId;
+        this.date = date;
+        this.count = count;
+        this.calories = calories;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getCalories() {
+        return calories;
+    }
+}
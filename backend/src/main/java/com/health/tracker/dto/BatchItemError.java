@@ -0,0 +1,30 @@
+package com.health.tracker.dto;
+
+public class BatchItemError {
+    private int index;
+    private String message;
+
+    public BatchItemError(int index, String message) {
+        this.index = index;
+        this.message = message;
+    }
+
+    public BatchItemError() {
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
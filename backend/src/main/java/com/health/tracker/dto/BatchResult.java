@@ -0,0 +1,42 @@
+package com.health.tracker.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchResult {
+    private int accepted;
+    private int rejected;
+    private List<BatchItemError> errors = new ArrayList<>();
+
+    public BatchResult() {
+    }
+
+    public void reject(int index, String message) {
+        errors.add(new BatchItemError(index, message));
+        rejected++;
+    }
+
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(int accepted) {
+        this.accepted = accepted;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<BatchItemError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BatchItemError> errors) {
+        this.errors = errors;
+    }
+}
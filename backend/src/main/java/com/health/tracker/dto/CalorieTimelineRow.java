@@ -0,0 +1,41 @@
+package com.health.tracker.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+// One day of the consumed/burned timeline. Keys stay snake_case for the existing chart code.
+@JsonSerialize(using = CalorieTimelineRow.Serializer.class)
+public record CalorieTimelineRow(int userId, LocalDate date, double caloriesConsumed, double caloriesBurned) {
+
+    public static class Serializer extends StdSerializer<CalorieTimelineRow> {
+        private static final SerializableString USER_ID = new SerializedString("userId");
+        private static final SerializableString DATE = new SerializedString("date");
+        private static final SerializableString CALORIES_CONSUMED = new SerializedString("calories_consumed");
+        private static final SerializableString CALORIES_BURNED = new SerializedString("calories_burned");
+
+        public Serializer() {
+            super(CalorieTimelineRow.class);
+        }
+
+        @Override
+        public void serialize(CalorieTimelineRow row, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName(USER_ID);
+            gen.writeNumber(row.userId);
+            gen.writeFieldName(DATE);
+            gen.writeString(row.date.toString());
+            gen.writeFieldName(CALORIES_CONSUMED);
+            gen.writeNumber(row.caloriesConsumed);
+            gen.writeFieldName(CALORIES_BURNED);
+            gen.writeNumber(row.caloriesBurned);
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.health.tracker.dto;
+
+import java.time.LocalDate;
+
+// Per-day calorie total, selected with a JPQL constructor expression
+public record DailyCalories(LocalDate date, Double calories) {
+}
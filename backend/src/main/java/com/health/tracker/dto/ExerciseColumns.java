@@ -0,0 +1,28 @@
+package com.health.tracker.dto;
+
+import com.health.tracker.entity.Exercise;
+
+import java.util.List;
+
+// Column-oriented exercise history for the CBOR wire format. Dates are epoch days.
+public record ExerciseColumns(int userId, int rows, int[] exerciseId, int[] date, String[] exerciseName,
+                              int[] durationMinutes, float[] caloriesBurned) {
+
+    public static ExerciseColumns of(int userId, List<Exercise> exercises) {
+        int rows = exercises.size();
+        int[] exerciseId = new int[rows];
+        int[] date = new int[rows];
+        String[] exerciseName = new String[rows];
+        int[] durationMinutes = new int[rows];
+        float[] caloriesBurned = new float[rows];
+        for (int i = 0; i < rows; i++) {
+            Exercise exercise = exercises.get(i);
+            exerciseId[i] = exercise.getExerciseId();
+            date[i] = (int) exercise.getDate().toEpochDay();
+            exerciseName[i] = exercise.getExerciseName();
+            durationMinutes[i] = exercise.getDurationMinutes();
+            caloriesBurned[i] = exercise.getCaloriesBurned();
+        }
+        return new ExerciseColumns(userId, rows, exerciseId, date, exerciseName, durationMinutes, caloriesBurned);
+    }
+}
@@ -0,0 +1,25 @@
+package com.health.tracker.dto;
+
+import com.health.tracker.entity.HealthMetric;
+
+import java.util.List;
+
+// Column-oriented health metric history for the CBOR wire format. Dates are epoch days.
+public record HealthMetricColumns(int userId, int rows, int[] metricId, int[] date, float[] weight, float[] bmi) {
+
+    public static HealthMetricColumns of(int userId, List<HealthMetric> metrics) {
+        int rows = metrics.size();
+        int[] metricId = new int[rows];
+        int[] date = new int[rows];
+        float[] weight = new float[rows];
+        float[] bmi = new float[rows];
+        for (int i = 0; i < rows; i++) {
+            HealthMetric metric = metrics.get(i);
+            metricId[i] = metric.getMetricId();
+            date[i] = (int) metric.getDate().toEpochDay();
+            weight[i] = metric.getWeight();
+            bmi[i] = metric.getBMI();
+        }
+        return new HealthMetricColumns(userId, rows, metricId, date, weight, bmi);
+    }
+}
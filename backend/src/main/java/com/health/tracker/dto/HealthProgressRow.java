@@ -0,0 +1,70 @@
+package com.health.tracker.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+// One point of a user's weight history, read from the columns stored on health_metric.
+// JSON keys match the old per-row maps, plus metricId for the keyset cursor.
+@JsonSerialize(using = HealthProgressRow.Serializer.class)
+public record HealthProgressRow(int metricId, int userId, LocalDate date, float weight, float bmi,
+                                String bmiCategory, Float weightChange) {
+
+    // Same bands as the CASE in user_profile_view and the V6 backfill
+    public static String bmiCategory(float bmi) {
+        if (bmi < 18.5) {
+            return "Underweight";
+        }
+        if (bmi < 25) {
+            return "Normal";
+        }
+        if (bmi < 30) {
+            return "Overweight";
+        }
+        return "Obese";
+    }
+
+    public static class Serializer extends StdSerializer<HealthProgressRow> {
+        private static final SerializableString METRIC_ID = new SerializedString("metricId");
+        private static final SerializableString USER_ID = new SerializedString("userId");
+        private static final SerializableString DATE = new SerializedString("date");
+        private static final SerializableString WEIGHT = new SerializedString("weight");
+        private static final SerializableString BMI = new SerializedString("bmi");
+        private static final SerializableString BMI_CATEGORY = new SerializedString("bmiCategory");
+        private static final SerializableString WEIGHT_CHANGE = new SerializedString("weightChange");
+
+        public Serializer() {
+            super(HealthProgressRow.class);
+        }
+
+        @Override
+        public void serialize(HealthProgressRow row, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName(METRIC_ID);
+            gen.writeNumber(row.metricId);
+            gen.writeFieldName(USER_ID);
+            gen.writeNumber(row.userId);
+            gen.writeFieldName(DATE);
+            gen.writeString(row.date.toString());
+            gen.writeFieldName(WEIGHT);
+            gen.writeNumber(row.weight);
+            gen.writeFieldName(BMI);
+            gen.writeNumber(row.bmi);
+            gen.writeFieldName(BMI_CATEGORY);
+            gen.writeString(row.bmiCategory);
+            gen.writeFieldName(WEIGHT_CHANGE);
+            if (row.weightChange != null) {
+                gen.writeNumber(row.weightChange);
+            } else {
+                gen.writeNull();
+            }
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.health.tracker.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class KeysetPage<T> {
+    private List<T> items;
+    // Pass these back as beforeDate/beforeId to fetch the next (older) page
+    private String nextBeforeDate;
+    private Integer nextBeforeId;
+    private boolean hasMore;
+
+    public KeysetPage(List<T> items, String nextBeforeDate, Integer nextBeforeId, boolean hasMore) {
+        this.items = items;
+        this.nextBeforeDate = nextBeforeDate;
+        this.nextBeforeId = nextBeforeId;
+        this.hasMore = hasMore;
+    }
+
+    public KeysetPage() {
+    }
+
+    // rows holds up to size + 1 entries; the extra one only signals that another page exists
+    public static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, Object> dateOf, Function<T, Integer> idOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? rows.subList(0, size) : rows;
+        if (items.isEmpty()) {
+            return new KeysetPage<>(items, null, null, false);
+        }
+        T last = items.get(items.size() - 1);
+        return new KeysetPage<>(items, String.valueOf(dateOf.apply(last)), idOf.apply(last), hasMore);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextBeforeDate() {
+        return nextBeforeDate;
+    }
+
+    public void setNextBeforeDate(String nextBeforeDate) {
+        this.nextBeforeDate = nextBeforeDate;
+    }
+
+    public Integer getNextBeforeId() {
+        return nextBeforeId;
+    }
+
+    public void setNextBeforeId(Integer nextBeforeId) {
+        this.nextBeforeId = nextBeforeId;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
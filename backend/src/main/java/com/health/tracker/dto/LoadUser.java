@@ -7,6 +7,7 @@ public class LoadUser {
     private String password;
     private LoadUserRole role;
     private String refresh_token;
+    private boolean active = true;
 
     public LoadUser(int id, String email, String contact, String password, LoadUserRole role, String refresh_token) {
         this.id = id;
@@ -68,4 +69,11 @@ public class LoadUser {
         this.refresh_token = refresh_token;
     }
 
-}
\ No newline at end of file
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
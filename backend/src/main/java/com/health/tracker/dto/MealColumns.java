@@ -0,0 +1,26 @@
+package com.health.tracker.dto;
+
+import com.health.tracker.entity.Meal;
+
+import java.util.List;
+
+// Column-oriented meal history for the CBOR wire format: one array per field instead of one
+// object per row. Dates are epoch days.
+public record MealColumns(int userId, int rows, int[] mealId, int[] date, String[] mealName, float[] caloriesConsumed) {
+
+    public static MealColumns of(int userId, List<Meal> meals) {
+        int rows = meals.size();
+        int[] mealId = new int[rows];
+        int[] date = new int[rows];
+        String[] mealName = new String[rows];
+        float[] caloriesConsumed = new float[rows];
+        for (int i = 0; i < rows; i++) {
+            Meal meal = meals.get(i);
+            mealId[i] = meal.getMealId();
+            date[i] = (int) meal.getDate().toEpochDay();
+            mealName[i] = meal.getMealName();
+            caloriesConsumed[i] = meal.getCaloriesConsumed();
+        }
+        return new MealColumns(userId, rows, mealId, date, mealName, caloriesConsumed);
+    }
+}
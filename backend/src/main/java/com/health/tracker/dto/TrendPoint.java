@@ -0,0 +1,14 @@
+package com.health.tracker.dto;
+
+import java.time.LocalDate;
+
+// One week or month of a trend. Stats are null for a period without data; the moving averages
+// cover this period and the ones before it that had data, up to the configured window.
+public record TrendPoint(LocalDate periodStart,
+                         TrendStats caloriesConsumed,
+                         TrendStats caloriesBurned,
+                         TrendStats weight,
+                         Double caloriesConsumedMovingAverage,
+                         Double caloriesBurnedMovingAverage,
+                         Double weightMovingAverage) {
+}
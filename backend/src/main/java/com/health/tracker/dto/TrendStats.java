@@ -0,0 +1,5 @@
+package com.health.tracker.dto;
+
+// Summary of the daily values (or weight readings) that fell into one trend period
+public record TrendStats(int count, double total, double average, double min, double max) {
+}
@@ -0,0 +1,8 @@
+package com.health.tracker.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// users is 1 for a single user's trend and the number of users with data for the cohort view
+public record Trends(String granularity, LocalDate from, LocalDate to, int users, List<TrendPoint> points) {
+}
@@ -1,5 +1,15 @@
 package com.health.tracker.dto;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+@JsonSerialize(using = UserProfileDTO.Serializer.class)
 public class UserProfileDTO {
     private Integer userId;
     private String name;
@@ -10,6 +20,9 @@ public class UserProfileDTO {
     private Float lastBMIRecorded;
     private String bmiCategory;
 
+    public UserProfileDTO() {
+    }
+
     // Constructor for view results
     public UserProfileDTO(Object[] row) {
         if (row != null && row.length >= 8) {
@@ -48,4 +61,62 @@ public class UserProfileDTO {
 
     public String getBmiCategory() { return bmiCategory; }
     public void setBmiCategory(String bmiCategory) { this.bmiCategory = bmiCategory; }
-}
\ No newline at end of file
+
+    // Same keys and placeholders as the map getUserProfile used to build
+    public static class Serializer extends StdSerializer<UserProfileDTO> {
+        private static final SerializableString USER_ID = new SerializedString("userId");
+        private static final SerializableString NAME = new SerializedString("name");
+        private static final SerializableString EMAIL = new SerializedString("email");
+        private static final SerializableString AGE = new SerializedString("age");
+        private static final SerializableString CURRENT_WEIGHT = new SerializedString("currentWeight");
+        private static final SerializableString HEIGHT = new SerializedString("height");
+        private static final SerializableString LAST_BMI_RECORDED = new SerializedString("lastBMIRecorded");
+        private static final SerializableString BMI_CATEGORY = new SerializedString("bmiCategory");
+
+        public Serializer() {
+            super(UserProfileDTO.class);
+        }
+
+        @Override
+        public void serialize(UserProfileDTO dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName(USER_ID);
+            writeNumber(gen, dto.userId);
+            gen.writeFieldName(NAME);
+            gen.writeString(dto.name);
+            gen.writeFieldName(EMAIL);
+            gen.writeString(dto.email);
+            gen.writeFieldName(AGE);
+            writeNumber(gen, dto.age);
+            gen.writeFieldName(CURRENT_WEIGHT);
+            writeNumber(gen, dto.currentWeight);
+            gen.writeFieldName(HEIGHT);
+            writeNumber(gen, dto.height);
+            gen.writeFieldName(LAST_BMI_RECORDED);
+            if (dto.lastBMIRecorded != null) {
+                gen.writeNumber(dto.lastBMIRecorded);
+            } else {
+                gen.writeString("Not recorded");
+            }
+            gen.writeFieldName(BMI_CATEGORY);
+            gen.writeString(dto.bmiCategory != null ? dto.bmiCategory : "Not calculated");
+            gen.writeEndObject();
+        }
+
+        private void writeNumber(JsonGenerator gen, Integer value) throws IOException {
+            if (value != null) {
+                gen.writeNumber(value);
+            } else {
+                gen.writeNull();
+            }
+        }
+
+        private void writeNumber(JsonGenerator gen, Float value) throws IOException {
+            if (value != null) {
+                gen.writeNumber(value);
+            } else {
+                gen.writeNull();
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.health.tracker.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// Public account fields for GET /api/users/{userId}, selected without loading the entity
+@JsonSerialize(using = UserSummary.Serializer.class)
+public record UserSummary(int userId, String name, String email, String contact,
+                          int age, float currentWeight, float height) {
+
+    public static class Serializer extends StdSerializer<UserSummary> {
+        private static final SerializableString USER_ID = new SerializedString("userId");
+        private static final SerializableString NAME = new SerializedString("name");
+        private static final SerializableString EMAIL = new SerializedString("email");
+        private static final SerializableString CONTACT = new SerializedString("contact");
+        private static final SerializableString AGE = new SerializedString("age");
+        private static final SerializableString CURRENT_WEIGHT = new SerializedString("currentWeight");
+        private static final SerializableString HEIGHT = new SerializedString("height");
+
+        public Serializer() {
+            super(UserSummary.class);
+        }
+
+        @Override
+        public void serialize(UserSummary user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName(USER_ID);
+            gen.writeNumber(user.userId);
+            gen.writeFieldName(NAME);
+            gen.writeString(user.name);
+            gen.writeFieldName(EMAIL);
+            gen.writeString(user.email);
+            gen.writeFieldName(CONTACT);
+            gen.writeString(user.contact);
+            gen.writeFieldName(AGE);
+            gen.writeNumber(user.age);
+            gen.writeFieldName(CURRENT_WEIGHT);
+            gen.writeNumber(user.currentWeight);
+            gen.writeFieldName(HEIGHT);
+            gen.writeNumber(user.height);
+            gen.writeEndObject();
+        }
+    }
+}
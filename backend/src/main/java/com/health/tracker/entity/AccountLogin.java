@@ -0,0 +1,81 @@
+package com.health.tracker.entity;
+
+import com.health.tracker.dto.LoadUserRole;
+import jakarta.persistence.*;
+
+// One row per login identifier (normalized email or contact) of a user or admin, so a login
+// resolves with one primary-key lookup. Maintained by AccountIndex; the role also tells
+// which table accountId refers to.
+@Entity
+@Table(name = "account_login", indexes = @Index(name = "idx_account_login_account", columnList = "role, accountId"))
+public class AccountLogin {
+    @Id
+    @Column(length = 191)
+    private String login;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private LoadUserRole role;
+    private int accountId;
+    private String email;
+    private String contact;
+    private String password;
+    private boolean active;
+
+    // Getters and Setters
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public LoadUserRole getRole() {
+        return role;
+    }
+
+    public void setRole(LoadUserRole role) {
+        this.role = role;
+    }
+
+    public int getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(int accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getContact() {
+        return contact;
+    }
+
+    public void setContact(String contact) {
+        this.contact = contact;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
@@ -0,0 +1,30 @@
+package com.health.tracker.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "user_alert_settings")
+public class AlertSetting {
+    @Id
+    private int userId;
+    // Null falls back to alerts.daily-calorie-limit
+    private Float dailyCalorieLimit;
+
+    // Getters and Setters
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public Float getDailyCalorieLimit() {
+        return dailyCalorieLimit;
+    }
+
+    public void setDailyCalorieLimit(Float dailyCalorieLimit) {
+        this.dailyCalorieLimit = dailyCalorieLimit;
+    }
+}
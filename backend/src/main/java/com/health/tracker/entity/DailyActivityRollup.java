@@ -0,0 +1,77 @@
+package com.health.tracker.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// One row per (user, day), kept in step with meal and exercise writes by DailyRollupService
+@Entity
+@IdClass(DailyActivityRollupId.class)
+public class DailyActivityRollup {
+    @Id
+    private int userId;
+    @Id
+    private LocalDate date;
+    private int mealCount;
+    private double caloriesConsumed;
+    private int exerciseCount;
+    private long durationMinutes;
+    private double caloriesBurned;
+
+    // Getters and Setters
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public int getMealCount() {
+        return mealCount;
+    }
+
+    public void setMealCount(int mealCount) {
+        this.mealCount = mealCount;
+    }
+
+    public double getCaloriesConsumed() {
+        return caloriesConsumed;
+    }
+
+    public void setCaloriesConsumed(double caloriesConsumed) {
+        this.caloriesConsumed = caloriesConsumed;
+    }
+
+    public int getExerciseCount() {
+        return exerciseCount;
+    }
+
+    public void setExerciseCount(int exerciseCount) {
+        this.exerciseCount = exerciseCount;
+    }
+
+    public long getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public void setDurationMinutes(long durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
+    public double getCaloriesBurned() {
+        return caloriesBurned;
+    }
+
+    public void setCaloriesBurned(double caloriesBurned) {
+        this.caloriesBurned = caloriesBurned;
+    }
+}
@@ -0,0 +1,39 @@
+package com.health.tracker.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class DailyActivityRollupId implements Serializable {
+    private int userId;
+    private LocalDate date;
+
+    public DailyActivityRollupId() {
+    }
+
+    public DailyActivityRollupId(int userId, LocalDate date) {
+        this.userId = userId;
+        this.date = date;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DailyActivityRollupId)) return false;
+        DailyActivityRollupId that = (DailyActivityRollupId) o;
+        return userId == that.userId && Objects.equals(date, that.date);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, date);
+    }
+}
@@ -11,6 +11,10 @@ public class HealthMetric {
     private LocalDate date = LocalDate.now();
     private float weight;
     private float BMI;
+    // Stored at write time by HealthMetricService; previous means the prior reading by (date, metricId)
+    private Float previousWeight;
+    private Float weightChange;
+    private String bmiCategory;
 
     // Getters and Setters
 
@@ -53,4 +57,28 @@ public class HealthMetric {
     public void setBMI(float BMI) {
         this.BMI = BMI;
     }
+
+    public Float getPreviousWeight() {
+        return previousWeight;
+    }
+
+    public void setPreviousWeight(Float previousWeight) {
+        this.previousWeight = previousWeight;
+    }
+
+    public Float getWeightChange() {
+        return weightChange;
+    }
+
+    public void setWeightChange(Float weightChange) {
+        this.weightChange = weightChange;
+    }
+
+    public String getBmiCategory() {
+        return bmiCategory;
+    }
+
+    public void setBmiCategory(String bmiCategory) {
+        this.bmiCategory = bmiCategory;
+    }
 }
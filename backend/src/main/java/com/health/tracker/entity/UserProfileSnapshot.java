@@ -0,0 +1,94 @@
+package com.health.tracker.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Materialized row of user_profile_view, the second level behind ProfileCache
+@Entity
+@Table(name = "user_profile_snapshot")
+public class UserProfileSnapshot {
+    @Id
+    private int userId;
+    private String name;
+    private String email;
+    private Integer age;
+    private Float currentWeight;
+    private Float height;
+    private Float lastBmiRecorded;
+    private String bmiCategory;
+    private LocalDateTime refreshedAt;
+
+    // Getters and Setters
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public Float getCurrentWeight() {
+        return currentWeight;
+    }
+
+    public void setCurrentWeight(Float currentWeight) {
+        this.currentWeight = currentWeight;
+    }
+
+    public Float getHeight() {
+        return height;
+    }
+
+    public void setHeight(Float height) {
+        this.height = height;
+    }
+
+    public Float getLastBmiRecorded() {
+        return lastBmiRecorded;
+    }
+
+    public void setLastBmiRecorded(Float lastBmiRecorded) {
+        this.lastBmiRecorded = lastBmiRecorded;
+    }
+
+    public String getBmiCategory() {
+        return bmiCategory;
+    }
+
+    public void setBmiCategory(String bmiCategory) {
+        this.bmiCategory = bmiCategory;
+    }
+
+    public LocalDateTime getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    public void setRefreshedAt(LocalDateTime refreshedAt) {
+        this.refreshedAt = refreshedAt;
+    }
+}
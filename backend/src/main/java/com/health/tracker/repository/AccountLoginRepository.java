@@ -0,0 +1,25 @@
+package com.health.tracker.repository;
+
+import com.health.tracker.dto.LoadUserRole;
+import com.health.tracker.entity.AccountLogin;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface AccountLoginRepository extends JpaRepository<AccountLogin, String> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AccountLogin a WHERE a.role = :role AND a.accountId = :accountId")
+    int deleteByAccount(@Param("role") LoadUserRole role, @Param("accountId") int accountId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AccountLogin a SET a.password = :password WHERE a.role = :role AND a.accountId = :accountId")
+    int updatePassword(@Param("role") LoadUserRole role, @Param("accountId") int accountId,
+                       @Param("password") String password);
+}
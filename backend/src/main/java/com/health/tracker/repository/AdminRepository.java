@@ -2,9 +2,23 @@ package com.health.tracker.repository;
 
 import com.health.tracker.entity.Admin;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface AdminRepository extends JpaRepository<Admin, Integer> {
     Admin findByEmail(String username);
 
     Admin findByContact(String loginInput);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Admin a SET a.refresh_token = :refreshToken WHERE a.id = :id")
+    int updateRefreshToken(@Param("id") int id, @Param("refreshToken") String refreshToken);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Admin a SET a.password = :password WHERE a.id = :id")
+    int updatePassword(@Param("id") int id, @Param("password") String password);
 }
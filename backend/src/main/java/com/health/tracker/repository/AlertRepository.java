@@ -1,12 +1,48 @@
 package com.health.tracker.repository;
 
 import com.health.tracker.entity.Alert;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AlertRepository extends JpaRepository<Alert, Integer> {
     List<Alert> findByUserIdOrderByAlertDateDesc(int userId);
     List<Alert> findByUserIdAndIsReadFalseOrderByAlertDateDesc(int userId);
+
+    @Query("SELECT DISTINCT a.userId FROM Alert a WHERE a.isRead = true AND a.alertDate < :cutoff")
+    List<Integer> findUserIdsWithReadAlertsBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Alert a WHERE a.userId = :userId AND a.isRead = true AND a.alertDate < :cutoff")
+    int deleteReadAlertsBefore(@Param("userId") int userId, @Param("cutoff") LocalDateTime cutoff);
+
+    // Keyset page, newest first: rows strictly older than the (beforeDate, beforeId) cursor
+    @Query("SELECT a FROM Alert a WHERE a.userId = :userId AND a.alertDate >= :from AND a.alertDate < :to " +
+            "AND (a.alertDate < :beforeDate OR (a.alertDate = :beforeDate AND a.alertId < :beforeId)) " +
+            "ORDER BY a.alertDate DESC, a.alertId DESC")
+    List<Alert> findPageByUserId(@Param("userId") int userId,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to,
+                                 @Param("beforeDate") LocalDateTime beforeDate,
+                                 @Param("beforeId") int beforeId,
+                                 Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RepositoryHints.STREAM_FETCH_SIZE))
+    @Query("SELECT a FROM Alert a WHERE a.userId = :userId AND a.alertDate >= :from AND a.alertDate < :to " +
+            "ORDER BY a.alertDate DESC, a.alertId DESC")
+    Stream<Alert> streamByUserId(@Param("userId") int userId,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
 }
\ No newline at end of file
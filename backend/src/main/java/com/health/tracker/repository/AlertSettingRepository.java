@@ -0,0 +1,9 @@
+package com.health.tracker.repository;
+
+import com.health.tracker.entity.AlertSetting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AlertSettingRepository extends JpaRepository<AlertSetting, Integer> {
+}
@@ -0,0 +1,65 @@
+package com.health.tracker.repository;
+
+import com.health.tracker.entity.DailyActivityRollup;
+import com.health.tracker.entity.DailyActivityRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface DailyActivityRollupRepository extends JpaRepository<DailyActivityRollup, DailyActivityRollupId> {
+
+    // Deltas are applied atomically in the database so concurrent writers never lose an update
+    @Modifying
+    @Query(value = "INSERT INTO daily_activity_rollup " +
+            "(user_id, date, meal_count, calories_consumed, exercise_count, duration_minutes, calories_burned) " +
+            "VALUES (:userId, :date, :mealCount, :calories, 0, 0, 0) " +
+            "ON DUPLICATE KEY UPDATE meal_count = meal_count + :mealCount, " +
+            "calories_consumed = calories_consumed + :calories", nativeQuery = true)
+    void addMeals(@Param("userId") int userId, @Param("date") LocalDate date,
+                  @Param("mealCount") int mealCount, @Param("calories") double calories);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_activity_rollup " +
+            "(user_id, date, meal_count, calories_consumed, exercise_count, duration_minutes, calories_burned) " +
+            "VALUES (:userId, :date, 0, 0, :exerciseCount, :duration, :calories) " +
+            "ON DUPLICATE KEY UPDATE exercise_count = exercise_count + :exerciseCount, " +
+            "duration_minutes = duration_minutes + :duration, " +
+            "calories_burned = calories_burned + :calories", nativeQuery = true)
+    void addExercises(@Param("userId") int userId, @Param("date") LocalDate date,
+                      @Param("exerciseCount") int exerciseCount, @Param("duration") long duration,
+                      @Param("calories") double calories);
+
+    // Stops at the first row, unlike count()
+    @Query(value = "SELECT EXISTS(SELECT 1 FROM daily_activity_rollup)", nativeQuery = true)
+    long anyRows();
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_activity_rollup", nativeQuery = true)
+    void clearAll();
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_activity_rollup WHERE user_id = :userId", nativeQuery = true)
+    void clearForUser(@Param("userId") int userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_activity_rollup " +
+            "(user_id, date, meal_count, calories_consumed, exercise_count, duration_minutes, calories_burned) " +
+            "SELECT user_id, date, COUNT(*), SUM(calories_consumed), 0, 0, 0 " +
+            "FROM meal WHERE (:userId IS NULL OR user_id = :userId) GROUP BY user_id, date", nativeQuery = true)
+    int backfillMeals(@Param("userId") Integer userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_activity_rollup " +
+            "(user_id, date, meal_count, calories_consumed, exercise_count, duration_minutes, calories_burned) " +
+            "SELECT * FROM (SELECT user_id, date, 0 AS meal_count, 0 AS calories_consumed, COUNT(*) AS exercise_count, " +
+            "SUM(duration_minutes) AS duration_minutes, SUM(calories_burned) AS calories_burned " +
+            "FROM exercise WHERE (:userId IS NULL OR user_id = :userId) GROUP BY user_id, date) AS e " +
+            "ON DUPLICATE KEY UPDATE exercise_count = e.exercise_count, " +
+            "duration_minutes = e.duration_minutes, calories_burned = e.calories_burned", nativeQuery = true)
+    int backfillExercises(@Param("userId") Integer userId);
+}
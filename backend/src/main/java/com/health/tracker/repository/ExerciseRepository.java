@@ -1,26 +1,49 @@
 // ExerciseRepository.java
 package com.health.tracker.repository;
 
-import com.health.tracker.dto.DailyExerciseSummaryDTO;
+import com.health.tracker.dto.DailyCalories;
 import com.health.tracker.entity.Exercise;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExerciseRepository extends JpaRepository<Exercise, Integer> {
 
     List<Exercise> findByUserIdAndDate(int userId, LocalDate date);
     List<Exercise> findByUserId(int userId);
-    
 
-    @Query(value = "SELECT * FROM daily_exercise_summary WHERE user_id = :userId AND exercise_date = :date", nativeQuery = true)
-    DailyExerciseSummaryDTO getDailyExerciseSummary(@Param("userId") int userId, @Param("date") LocalDate date);
+    // Per-day totals in date order, served from idx_exercise_user_date
+    @Query("SELECT new com.health.tracker.dto.DailyCalories(e.date, SUM(e.caloriesBurned)) FROM Exercise e " +
+            "WHERE e.userId = :userId AND e.date BETWEEN :from AND :to " +
+            "GROUP BY e.date ORDER BY e.date")
+    Stream<DailyCalories> streamDailyCaloriesBurned(@Param("userId") int userId,
+                                               @Param("from") LocalDate from,
+                                               @Param("to") LocalDate to);
 
-    // Fixed procedure mapping
-    @Query(value = "CALL GetTotalCaloriesBurned(:userId, :date)", nativeQuery = true)
-    Double getTotalCaloriesBurned(@Param("userId") int userId, @Param("date") LocalDate date);
+    // Keyset page, newest first: rows strictly older than the (beforeDate, beforeId) cursor
+    @Query("SELECT e FROM Exercise e WHERE e.userId = :userId AND e.date BETWEEN :from AND :to " +
+            "AND (e.date < :beforeDate OR (e.date = :beforeDate AND e.exerciseId < :beforeId)) " +
+            "ORDER BY e.date DESC, e.exerciseId DESC")
+    List<Exercise> findPageByUserId(@Param("userId") int userId,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to,
+                                    @Param("beforeDate") LocalDate beforeDate,
+                                    @Param("beforeId") int beforeId,
+                                    Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RepositoryHints.STREAM_FETCH_SIZE))
+    @Query("SELECT e FROM Exercise e WHERE e.userId = :userId AND e.date BETWEEN :from AND :to " +
+            "ORDER BY e.date DESC, e.exerciseId DESC")
+    Stream<Exercise> streamByUserId(@Param("userId") int userId,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
 }
\ No newline at end of file
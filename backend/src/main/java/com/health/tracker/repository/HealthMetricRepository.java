@@ -1,13 +1,21 @@
 // HealthMetricRepository.java
 package com.health.tracker.repository;
 
+import com.health.tracker.dto.HealthProgressRow;
 import com.health.tracker.entity.HealthMetric;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
 
 import java.util.List;
+import java.util.stream.Stream;
 import java.util.Map;
 
 @Repository
@@ -16,9 +24,58 @@ public interface HealthMetricRepository extends JpaRepository<HealthMetric, Inte
     List<HealthMetric> findByUserIdOrderByDateDesc(int userId);
     HealthMetric findTopByUserIdOrderByDateDesc(int userId);
 
-    @Query(value = "SELECT * FROM health_progress_view WHERE user_id = :userId ORDER BY date DESC", nativeQuery = true)
-    List<Object[]> getHealthProgressView(@Param("userId") int userId);
+    // Both neighbours of a new reading dated :date in one query: the last reading on or before
+    // that date and the first one after it, in (date, metricId) order. Either may be missing.
+    @Query(value = "(SELECT * FROM health_metric WHERE user_id = :userId AND date <= :date " +
+            "ORDER BY date DESC, metric_id DESC LIMIT 1) " +
+            "UNION ALL " +
+            "(SELECT * FROM health_metric WHERE user_id = :userId AND date > :date " +
+            "ORDER BY date, metric_id LIMIT 1)", nativeQuery = true)
+    List<HealthMetric> findNeighbours(@Param("userId") int userId, @Param("date") LocalDate date);
 
-    @Query(value = "SELECT * FROM calories_consumed_burned_view WHERE user_id = :userId", nativeQuery = true)
-    List<Object[]> getCaloriesConsumedBurnedView(@Param("userId") int userId);
+    // Newest first; weight change and category are stored on the row at write time
+    @Query("SELECT new com.health.tracker.dto.HealthProgressRow(h.metricId, h.userId, h.date, h.weight, h.BMI, " +
+            "h.bmiCategory, h.weightChange) " +
+            "FROM HealthMetric h WHERE h.userId = :userId ORDER BY h.date DESC, h.metricId DESC")
+    List<HealthProgressRow> findProgressByUserId(@Param("userId") int userId);
+
+    @Query("SELECT new com.health.tracker.dto.HealthProgressRow(h.metricId, h.userId, h.date, h.weight, h.BMI, " +
+            "h.bmiCategory, h.weightChange) " +
+            "FROM HealthMetric h WHERE h.userId = :userId AND h.date BETWEEN :from AND :to " +
+            "AND (h.date < :beforeDate OR (h.date = :beforeDate AND h.metricId < :beforeId)) " +
+            "ORDER BY h.date DESC, h.metricId DESC")
+    List<HealthProgressRow> findProgressPageByUserId(@Param("userId") int userId,
+                                                     @Param("from") LocalDate from,
+                                                     @Param("to") LocalDate to,
+                                                     @Param("beforeDate") LocalDate beforeDate,
+                                                     @Param("beforeId") int beforeId,
+                                                     Pageable pageable);
+
+    // Recomputes previous weight and weight change for one user's rows dated from onwards,
+    // after bulk inserts; the window only reads that user's rows
+    @Modifying
+    @Query(value = "UPDATE health_metric h JOIN (" +
+            "SELECT metric_id, LAG(weight) OVER (ORDER BY date, metric_id) AS previous_weight " +
+            "FROM health_metric WHERE user_id = :userId) p ON p.metric_id = h.metric_id " +
+            "SET h.previous_weight = p.previous_weight, h.weight_change = h.weight - p.previous_weight " +
+            "WHERE h.user_id = :userId AND h.date >= :from", nativeQuery = true)
+    int refreshProgress(@Param("userId") int userId, @Param("from") LocalDate from);
+
+    // Keyset page, newest first: rows strictly older than the (beforeDate, beforeId) cursor
+    @Query("SELECT h FROM HealthMetric h WHERE h.userId = :userId AND h.date BETWEEN :from AND :to " +
+            "AND (h.date < :beforeDate OR (h.date = :beforeDate AND h.metricId < :beforeId)) " +
+            "ORDER BY h.date DESC, h.metricId DESC")
+    List<HealthMetric> findPageByUserId(@Param("userId") int userId,
+                                        @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to,
+                                        @Param("beforeDate") LocalDate beforeDate,
+                                        @Param("beforeId") int beforeId,
+                                        Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RepositoryHints.STREAM_FETCH_SIZE))
+    @Query("SELECT h FROM HealthMetric h WHERE h.userId = :userId AND h.date BETWEEN :from AND :to " +
+            "ORDER BY h.date DESC, h.metricId DESC")
+    Stream<HealthMetric> streamByUserId(@Param("userId") int userId,
+                                        @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
 }
\ No newline at end of file
@@ -1,14 +1,19 @@
 // MealRepository.java
 package com.health.tracker.repository;
 
-import com.health.tracker.dto.CaloriSummaryDTO;
+import com.health.tracker.dto.DailyCalories;
 import com.health.tracker.entity.Meal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MealRepository extends JpaRepository<Meal, Integer> {
@@ -16,10 +21,29 @@ public interface MealRepository extends JpaRepository<Meal, Integer> {
     List<Meal> findByUserIdAndDate(int userId, LocalDate date);
     List<Meal> findByUserId(int userId);
 
-    @Query(value = "SELECT * FROM daily_calorie_intake WHERE user_id = :userId AND meal_date = :date", nativeQuery = true)
-    CaloriSummaryDTO getDailyCalorieIntake(@Param("userId") int userId, @Param("date") LocalDate date);
+    // Per-day totals in date order, served from idx_meal_user_date
+    @Query("SELECT new com.health.tracker.dto.DailyCalories(m.date, SUM(m.caloriesConsumed)) FROM Meal m " +
+            "WHERE m.userId = :userId AND m.date BETWEEN :from AND :to " +
+            "GROUP BY m.date ORDER BY m.date")
+    Stream<DailyCalories> streamDailyCaloriesConsumed(@Param("userId") int userId,
+                                                 @Param("from") LocalDate from,
+                                                 @Param("to") LocalDate to);
 
-    // Fixed procedure mapping
-    @Query(value = "CALL GetTotalCaloriesConsumed(:userId, :date)", nativeQuery = true)
-    Double getTotalCaloriesConsumed(@Param("userId") int userId, @Param("date") LocalDate date);
+    // Keyset page, newest first: rows strictly older than the (beforeDate, beforeId) cursor
+    @Query("SELECT m FROM Meal m WHERE m.userId = :userId AND m.date BETWEEN :from AND :to " +
+            "AND (m.date < :beforeDate OR (m.date = :beforeDate AND m.mealId < :beforeId)) " +
+            "ORDER BY m.date DESC, m.mealId DESC")
+    List<Meal> findPageByUserId(@Param("userId") int userId,
+                                @Param("from") LocalDate from,
+                                @Param("to") LocalDate to,
+                                @Param("beforeDate") LocalDate beforeDate,
+                                @Param("beforeId") int beforeId,
+                                Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RepositoryHints.STREAM_FETCH_SIZE))
+    @Query("SELECT m FROM Meal m WHERE m.userId = :userId AND m.date BETWEEN :from AND :to " +
+            "ORDER BY m.date DESC, m.mealId DESC")
+    Stream<Meal> streamByUserId(@Param("userId") int userId,
+                                @Param("from") LocalDate from,
+                                @Param("to") LocalDate to);
 }
\ No newline at end of file
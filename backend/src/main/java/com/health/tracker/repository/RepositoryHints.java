@@ -0,0 +1,12 @@
+package com.health.tracker.repository;
+
+public final class RepositoryHints {
+
+    // Rows fetched per round trip by Stream<T> queries. Connector/J only honours a
+    // positive fetch size with useCursorFetch=true on the datasource URL; otherwise
+    // it would buffer the whole result set in the heap.
+    public static final String STREAM_FETCH_SIZE = "500";
+
+    private RepositoryHints() {
+    }
+}
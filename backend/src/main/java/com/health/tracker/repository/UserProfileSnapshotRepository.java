@@ -0,0 +1,41 @@
+package com.health.tracker.repository;
+
+import com.health.tracker.entity.UserProfileSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+@Repository
+public interface UserProfileSnapshotRepository extends JpaRepository<UserProfileSnapshot, Integer> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserProfileSnapshot s WHERE s.userId IN :userIds")
+    void deleteByUserIds(@Param("userIds") Collection<Integer> userIds);
+
+    // Rows come straight from user_profile_view inside the writer's transaction, so they reflect
+    // the write that triggered them; a user the view no longer returns gets no row
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_profile_snapshot (user_id, name, email, age, current_weight, height, " +
+            "last_bmi_recorded, bmi_category, refreshed_at) " +
+            "SELECT user_id, name, email, age, current_weight, height, last_bmi_recorded, bmi_category, NOW(6) " +
+            "FROM user_profile_view WHERE user_id IN (:userIds) " +
+            "ON DUPLICATE KEY UPDATE name = VALUES(name), email = VALUES(email), age = VALUES(age), " +
+            "current_weight = VALUES(current_weight), height = VALUES(height), " +
+            "last_bmi_recorded = VALUES(last_bmi_recorded), bmi_category = VALUES(bmi_category), " +
+            "refreshed_at = VALUES(refreshed_at)", nativeQuery = true)
+    void refreshFromView(@Param("userIds") Collection<Integer> userIds);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserProfileSnapshot s SET s.currentWeight = :weight, s.lastBmiRecorded = :bmi, " +
+            "s.bmiCategory = :bmiCategory WHERE s.userId = :userId")
+    int updateLatestReading(@Param("userId") int userId, @Param("weight") float weight,
+                            @Param("bmi") float bmi, @Param("bmiCategory") String bmiCategory);
+}
@@ -1,10 +1,14 @@
 package com.health.tracker.repository;
 
+import com.health.tracker.dto.UserSummary;
 import com.health.tracker.entity.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
 import java.util.Optional;
 
 import java.util.List;
@@ -12,15 +16,32 @@ import java.util.List;
 @Repository
 public interface UserRepository extends JpaRepository<Users, Integer> {
 
+    @Query("SELECT new com.health.tracker.dto.UserSummary(u.id, u.name, u.email, u.contact, u.age, u.weight, u.height) " +
+            "FROM Users u WHERE u.id = :userId")
+    Optional<UserSummary> findSummaryById(@Param("userId") int userId);
+
+    // Partial update that also takes the row lock serializing writes to one user's health-metric
+    // history. The weight only changes when no later reading exists. Connector/J reports found
+    // rather than changed rows, so 0 means the user does not exist.
+    @Modifying
+    @Query(value = "UPDATE users SET weight = CASE WHEN EXISTS (" +
+            "SELECT 1 FROM health_metric WHERE user_id = :userId AND date > :date) THEN weight ELSE :weight END " +
+            "WHERE user_id = :userId", nativeQuery = true)
+    int updateWeightUnlessBackdated(@Param("userId") int userId, @Param("weight") float weight,
+                                    @Param("date") LocalDate date);
+
     @Query(value = "SELECT * FROM user_profile_view WHERE user_id = :userId", nativeQuery = true)
     List<Object[]> getUserProfileView(@Param("userId") int userId);
 
-    // Fixed procedure mapping
-    @Query(value = "CALL CalculateUserBMI(:userId)", nativeQuery = true)
-    Double calculateUserBMI(@Param("userId") int userId);
+    @Transactional
+    @Modifying
+    @Query("UPDATE Users u SET u.refresh_token = :refreshToken WHERE u.id = :id")
+    int updateRefreshToken(@Param("id") int id, @Param("refreshToken") String refreshToken);
 
-    @Query(value = "SELECT get_user_calorie_summary(:userId)", nativeQuery = true)
-    String getUserCalorieSummary(@Param("userId") int userId);
+    @Transactional
+    @Modifying
+    @Query("UPDATE Users u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") int id, @Param("password") String password);
 
     Users findByEmail(String username);
 
@@ -0,0 +1,107 @@
+package com.health.tracker.service;
+
+import com.health.tracker.dto.LoadUser;
+import com.health.tracker.dto.LoadUserRole;
+import com.health.tracker.entity.AccountLogin;
+import com.health.tracker.entity.Admin;
+import com.health.tracker.entity.Users;
+import com.health.tracker.repository.AccountLoginRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+// Every email and contact of a user or admin, keyed by its normalized form in account_login.
+// Logins, registration checks and logout resolve an identifier with one primary-key lookup
+// instead of probing users and then admin. Kept in step by the services that write accounts.
+@Service
+public class AccountIndex {
+
+    @Autowired
+    private AccountLoginRepository accountLoginRepository;
+
+    public static String normalize(String login) {
+        if (login == null) {
+            return null;
+        }
+        String trimmed = login.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    public Optional<AccountLogin> find(String login) {
+        String key = normalize(login);
+        return key == null ? Optional.empty() : accountLoginRepository.findById(key);
+    }
+
+    public LoadUser findLoadUser(String login) {
+        return find(login).map(AccountIndex::toLoadUser).orElse(null);
+    }
+
+    public boolean exists(String login) {
+        String key = normalize(login);
+        return key != null && accountLoginRepository.existsById(key);
+    }
+
+    // True when the login is taken by any account other than the given one
+    public boolean takenByOther(String login, LoadUserRole role, int accountId) {
+        return find(login)
+                .map(entry -> entry.getRole() != role || entry.getAccountId() != accountId)
+                .orElse(false);
+    }
+
+    @Transactional
+    public void index(Users users) {
+        replace(LoadUserRole.USER, users.getId(), users.getEmail(), users.getContact(),
+                users.getPassword(), users.getActive());
+    }
+
+    @Transactional
+    public void index(Admin admin) {
+        replace(LoadUserRole.ADMIN, admin.getId(), admin.getEmail(), admin.getContact(),
+                admin.getPassword(), admin.getActive());
+    }
+
+    public void passwordChanged(LoadUserRole role, int accountId, String password) {
+        accountLoginRepository.updatePassword(role, accountId, password);
+    }
+
+    private void replace(LoadUserRole role, int accountId, String email, String contact,
+                         String password, Boolean active) {
+        accountLoginRepository.deleteByAccount(role, accountId);
+        // Flush the delete so an unchanged identifier can be inserted again
+        accountLoginRepository.flush();
+
+        List<AccountLogin> entries = new ArrayList<>(2);
+        for (String login : new String[]{email, contact}) {
+            String key = normalize(login);
+            if (key == null || entries.stream().anyMatch(e -> e.getLogin().equals(key))) {
+                continue;
+            }
+            AccountLogin entry = new AccountLogin();
+            entry.setLogin(key);
+            entry.setRole(role);
+            entry.setAccountId(accountId);
+            entry.setEmail(email);
+            entry.setContact(contact);
+            entry.setPassword(password);
+            entry.setActive(active == null || active);
+            entries.add(entry);
+        }
+        accountLoginRepository.saveAll(entries);
+    }
+
+    private static LoadUser toLoadUser(AccountLogin entry) {
+        LoadUser loadUser = new LoadUser();
+        loadUser.setId(entry.getAccountId());
+        loadUser.setEmail(entry.getEmail());
+        loadUser.setContact(entry.getContact());
+        loadUser.setRole(entry.getRole());
+        loadUser.setPassword(entry.getPassword());
+        loadUser.setActive(entry.isActive());
+        return loadUser;
+    }
+}
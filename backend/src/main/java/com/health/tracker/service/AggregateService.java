@@ -0,0 +1,120 @@
+package com.health.tracker.service;
+
+import com.health.tracker.dto.UserProfileDTO;
+import com.health.tracker.entity.DailyActivityRollup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Optional;
+
+// Daily calorie totals, the calorie summary and the BMI, formerly stored procedures and a
+// function called with CALL. Totals are plain parameterized SELECTs answered from the
+// (user_id, date, calories) covering indexes, so the driver can keep them as cached server-side
+// prepared statements. If a query fails or times out, the daily rollup answers instead.
+@Service
+public class AggregateService {
+
+    private static final Logger log = LoggerFactory.getLogger(AggregateService.class);
+
+    private static final String CONSUMED_SQL =
+            "SELECT COALESCE(SUM(calories_consumed), 0) FROM meal WHERE user_id = ? AND date = ?";
+    private static final String BURNED_SQL =
+            "SELECT COALESCE(SUM(calories_burned), 0) FROM exercise WHERE user_id = ? AND date = ?";
+    private static final String DAY_SQL =
+            "SELECT (" + CONSUMED_SQL + "), (" + BURNED_SQL + ")";
+
+    @Autowired
+    private DailyRollupService dailyRollupService;
+
+    @Autowired
+    private ProfileCache profileCache;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AggregateService(DataSource dataSource,
+                            @Value("${aggregates.query-timeout-seconds:2}") int queryTimeoutSeconds) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout(queryTimeoutSeconds);
+    }
+
+    public double caloriesConsumed(int userId, LocalDate date) {
+        try {
+            return jdbcTemplate.queryForObject(CONSUMED_SQL, Double.class, userId, Date.valueOf(date));
+        } catch (DataAccessException e) {
+            log.warn("Calories consumed query failed, using rollup: {}", e.getMessage());
+            return rollup(userId, date).map(DailyActivityRollup::getCaloriesConsumed).orElse(0.0);
+        }
+    }
+
+    public double caloriesBurned(int userId, LocalDate date) {
+        try {
+            return jdbcTemplate.queryForObject(BURNED_SQL, Double.class, userId, Date.valueOf(date));
+        } catch (DataAccessException e) {
+            log.warn("Calories burned query failed, using rollup: {}", e.getMessage());
+            return rollup(userId, date).map(DailyActivityRollup::getCaloriesBurned).orElse(0.0);
+        }
+    }
+
+    // Both totals for one day in a single round trip
+    public double[] dailyTotals(int userId, LocalDate date) {
+        Date day = Date.valueOf(date);
+        try {
+            return jdbcTemplate.queryForObject(DAY_SQL,
+                    (rs, rowNum) -> new double[]{rs.getDouble(1), rs.getDouble(2)},
+                    userId, day, userId, day);
+        } catch (DataAccessException e) {
+            log.warn("Daily totals query failed, using rollup: {}", e.getMessage());
+            return rollup(userId, date)
+                    .map(r -> new double[]{r.getCaloriesConsumed(), r.getCaloriesBurned()})
+                    .orElse(new double[2]);
+        }
+    }
+
+    // Same wording as the former get_user_calorie_summary function, for today
+    public String calorieSummary(int userId) {
+        double[] totals = dailyTotals(userId, LocalDate.now());
+        double net = totals[0] - totals[1];
+        if (net > 0) {
+            return "Calorie surplus: " + round(net);
+        }
+        if (net < 0) {
+            return "Calorie deficit: " + round(-net);
+        }
+        return "Calorie balance maintained";
+    }
+
+    // Current weight over height in metres squared, from the cached profile; null for an unknown
+    // user or a missing measurement
+    public Double bmi(int userId) {
+        UserProfileDTO profile = profileCache.get(userId);
+        if (profile == null || profile.getCurrentWeight() == null || profile.getHeight() == null
+                || profile.getHeight() <= 0) {
+            return null;
+        }
+        double meters = profile.getHeight() / 100.0;
+        return profile.getCurrentWeight() / (meters * meters);
+    }
+
+    private Optional<DailyActivityRollup> rollup(int userId, LocalDate date) {
+        try {
+            return dailyRollupService.getRollup(userId, date);
+        } catch (DataAccessException e) {
+            log.warn("Rollup lookup failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static String round(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,47 @@
+package com.health.tracker.service;
+
+import com.health.tracker.repository.AlertRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+// Daily purge of read alerts past the retention period (replaces the clear_old_alerts MySQL
+// event). Deletes go one user at a time so each user's ALERTS version is bumped once their
+// rows are gone, and cached alert lists revalidate instead of getting a stale 304.
+@Service
+public class AlertPurge {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertPurge.class);
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Value("${alerts.purge.retention-days:30}")
+    private int retentionDays;
+
+    @Scheduled(cron = "${alerts.purge.cron:0 0 3 * * *}")
+    public void purge() {
+        purgeReadAlertsBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    public int purgeReadAlertsBefore(LocalDateTime cutoff) {
+        int deleted = 0;
+        for (int userId : alertRepository.findUserIdsWithReadAlertsBefore(cutoff)) {
+            int rows = alertRepository.deleteReadAlertsBefore(userId, cutoff);
+            if (rows > 0) {
+                resourceVersions.bump(userId, ResourceVersions.Resource.ALERTS);
+                deleted += rows;
+            }
+        }
+        log.info("Purged {} read alerts older than {}", deleted, cutoff);
+        return deleted;
+    }
+}
@@ -0,0 +1,14 @@
+package com.health.tracker.service;
+
+import com.health.tracker.entity.AlertSetting;
+
+import java.time.LocalDate;
+
+// A condition checked against a user's running daily totals. A rule fires at most once per user per day.
+public interface AlertRule {
+
+    String getName();
+
+    // Returns the alert message, or null when the rule does not fire
+    String evaluate(int userId, LocalDate date, AlertRuleEngine.DailyTotals totals, AlertSetting setting);
+}
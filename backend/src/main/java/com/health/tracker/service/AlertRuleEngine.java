@@ -0,0 +1,282 @@
+package com.health.tracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.health.tracker.dto.ActivityEvent;
+import com.health.tracker.entity.Alert;
+import com.health.tracker.entity.AlertSetting;
+import com.health.tracker.entity.DailyActivityRollup;
+import com.health.tracker.entity.DailyActivityRollupId;
+import com.health.tracker.repository.AlertRepository;
+import com.health.tracker.repository.AlertSettingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Evaluates alert rules off the request path. Write services publish ActivityEvents, which are
+// queued after their transaction commits; a single worker checks the rules against the daily
+// totals of the days each drained batch touched and writes any resulting alerts to user_alerts
+// in one saveAll per batch.
+@Service
+public class AlertRuleEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertRuleEngine.class);
+
+    private static final long MIN_BACKOFF_MS = 100;
+    private static final long MAX_BACKOFF_MS = 5000;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private AlertSettingRepository alertSettingRepository;
+
+    @Autowired
+    private DailyRollupService dailyRollupService;
+
+    @Autowired
+    private List<AlertRule> rules;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    private final BlockingQueue<ActivityEvent> queue;
+    private final int batchSize;
+
+    // Rules already fired per user and day. Only touched by the worker thread; oldest days fall
+    // out once the bound is reached
+    private final Map<DayKey, Set<String>> firedRules;
+
+    // Alert settings per user, including users without any (empty), up to a bound
+    private final Cache<Integer, Optional<AlertSetting>> settings;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AlertRuleEngine(@Value("${alerts.engine.queue-capacity:10000}") int queueCapacity,
+                           @Value("${alerts.engine.batch-size:500}") int batchSize,
+                           @Value("${alerts.engine.max-tracked-days:100000}") int maxTrackedDays,
+                           @Value("${alerts.engine.max-cached-settings:100000}") long maxCachedSettings) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.firedRules = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DayKey, Set<String>> eldest) {
+                return size() > maxTrackedDays;
+            }
+        };
+        this.settings = Caffeine.newBuilder()
+                .maximumSize(maxCachedSettings)
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "alert-rule-engine");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    // Never blocks the writer: if the queue is full the event is dropped and logged
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivity(ActivityEvent event) {
+        if (!queue.offer(event)) {
+            log.warn("Alert queue full, dropping {} event for user {}", event.getType(), event.getUserId());
+        }
+    }
+
+    public void settingsChanged(int userId) {
+        settings.invalidate(userId);
+    }
+
+    private void run() {
+        List<ActivityEvent> batch = new ArrayList<>(batchSize);
+        long backoffMs = MIN_BACKOFF_MS;
+        while (running) {
+            try {
+                if (batch.isEmpty()) {
+                    ActivityEvent first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                process(batch);
+                batch.clear();
+                backoffMs = MIN_BACKOFF_MS;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                // process() changes nothing until its alerts are saved, so the batch is kept and retried
+                log.error("Error evaluating alert rules, retrying {} events: {}", batch.size(), e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    void process(List<ActivityEvent> batch) {
+        Map<DayKey, DailyTotals> deltas = new LinkedHashMap<>();
+        for (ActivityEvent event : batch) {
+            deltas.computeIfAbsent(new DayKey(event.getUserId(), event.getDate()), k -> new DailyTotals())
+                    .apply(event);
+        }
+
+        // The rollup is updated in the same transactions that publish these events, so it already
+        // holds the running totals, including events still queued behind this batch. Reading it
+        // (one query per batch) instead of adding deltas to a cached copy never counts one twice.
+        Map<DayKey, DailyTotals> totalsByDay = readTotals(deltas.keySet());
+
+        List<Alert> alerts = new ArrayList<>();
+        Map<DayKey, Set<String>> fired = new LinkedHashMap<>();
+        deltas.forEach((key, delta) -> {
+            AlertSetting setting = settings
+                    .get(key.userId, alertSettingRepository::findById)
+                    .orElse(null);
+            DailyTotals totals = totalsByDay.getOrDefault(key, new DailyTotals());
+
+            Set<String> firedForDay;
+            if (firedRules.containsKey(key)) {
+                firedForDay = new HashSet<>(firedRules.get(key));
+            } else {
+                // First batch for this day since startup: rules that held before it fired earlier
+                // and are not repeated
+                firedForDay = new HashSet<>();
+                DailyTotals before = totals.minus(delta);
+                for (AlertRule rule : rules) {
+                    if (rule.evaluate(key.userId, key.date, before, setting) != null) {
+                        firedForDay.add(rule.getName());
+                    }
+                }
+            }
+
+            for (AlertRule rule : rules) {
+                if (firedForDay.contains(rule.getName())) {
+                    continue;
+                }
+                String message = rule.evaluate(key.userId, key.date, totals, setting);
+                if (message != null) {
+                    firedForDay.add(rule.getName());
+                    Alert alert = new Alert();
+                    alert.setUserId(key.userId);
+                    alert.setMessage(message);
+                    alert.setAlertDate(alertDate(key.date));
+                    alerts.add(alert);
+                }
+            }
+            fired.put(key, firedForDay);
+        });
+
+        if (!alerts.isEmpty()) {
+            alertRepository.saveAll(alerts);
+            alerts.forEach(alert -> resourceVersions.bump(alert.getUserId(), ResourceVersions.Resource.ALERTS));
+        }
+        firedRules.putAll(fired);
+    }
+
+    private Map<DayKey, DailyTotals> readTotals(Set<DayKey> keys) {
+        List<DailyActivityRollupId> ids = keys.stream()
+                .map(key -> new DailyActivityRollupId(key.userId, key.date))
+                .toList();
+        Map<DayKey, DailyTotals> totals = new HashMap<>();
+        for (DailyActivityRollup rollup : dailyRollupService.getRollups(ids)) {
+            DailyTotals day = new DailyTotals();
+            day.mealCount = rollup.getMealCount();
+            day.caloriesConsumed = rollup.getCaloriesConsumed();
+            day.exerciseCount = rollup.getExerciseCount();
+            day.caloriesBurned = rollup.getCaloriesBurned();
+            totals.put(new DayKey(rollup.getUserId(), rollup.getDate()), day);
+        }
+        return totals;
+    }
+
+    // Alerts belong to the day of the activity, which a backdated log puts in the past
+    private static LocalDateTime alertDate(LocalDate date) {
+        LocalDateTime now = LocalDateTime.now();
+        return date.equals(now.toLocalDate()) ? now : date.atStartOfDay();
+    }
+
+    private record DayKey(int userId, LocalDate date) {
+    }
+
+    public static class DailyTotals {
+        private int mealCount;
+        private double caloriesConsumed;
+        private int exerciseCount;
+        private double caloriesBurned;
+
+        private void apply(ActivityEvent event) {
+            switch (event.getType()) {
+                case MEALS -> {
+                    mealCount += event.getCount();
+                    caloriesConsumed += event.getCalories();
+                }
+                case EXERCISES -> {
+                    exerciseCount += event.getCount();
+                    caloriesBurned += event.getCalories();
+                }
+                default -> {
+                }
+            }
+        }
+
+        private DailyTotals minus(DailyTotals other) {
+            DailyTotals result = new DailyTotals();
+            result.mealCount = mealCount - other.mealCount;
+            result.caloriesConsumed = caloriesConsumed - other.caloriesConsumed;
+            result.exerciseCount = exerciseCount - other.exerciseCount;
+            result.caloriesBurned = caloriesBurned - other.caloriesBurned;
+            return result;
+        }
+
+        public int getMealCount() {
+            return mealCount;
+        }
+
+        public double getCaloriesConsumed() {
+            return caloriesConsumed;
+        }
+
+        public int getExerciseCount() {
+            return exerciseCount;
+        }
+
+        public double getCaloriesBurned() {
+            return caloriesBurned;
+        }
+    }
+}
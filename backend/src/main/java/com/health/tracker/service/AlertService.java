@@ -1,10 +1,21 @@
 package com.health.tracker.service;
 
+import com.health.tracker.dto.KeysetPage;
 import com.health.tracker.entity.Alert;
+import com.health.tracker.entity.AlertSetting;
 import com.health.tracker.repository.AlertRepository;
+import com.health.tracker.repository.AlertSettingRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class AlertService {
@@ -12,10 +23,46 @@ public class AlertService {
     @Autowired
     private AlertRepository alertRepository;
 
+    @Autowired
+    private AlertSettingRepository alertSettingRepository;
+
+    @Autowired
+    private AlertRuleEngine alertRuleEngine;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public List<Alert> getAlertsByUser(int userId) {
         return alertRepository.findByUserIdOrderByAlertDateDesc(userId);
     }
+
     
+    // Date bounds are whole days: from its first instant up to the end of the to day
+    public KeysetPage<Alert> getAlertsPage(int userId, LocalDate from, LocalDate to,
+                                           LocalDateTime beforeDate, Integer beforeId, int size) {
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        List<Alert> rows = alertRepository.findPageByUserId(userId, from.atStartOfDay(), end,
+                beforeDate != null ? beforeDate : end,
+                beforeId != null ? beforeId : Integer.MAX_VALUE,
+                PageRequest.ofSize(size + 1));
+        return KeysetPage.of(rows, size, Alert::getAlertDate, Alert::getAlertId);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAlertsByUser(int userId, LocalDate from, LocalDate to, Consumer<Alert> sink) {
+        try (Stream<Alert> alerts = alertRepository.streamByUserId(userId,
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            alerts.forEach(alert -> {
+                sink.accept(alert);
+                // Keep the persistence context from growing with the export
+                entityManager.detach(alert);
+            });
+        }
+    }
+
     public List<Alert> getUnreadAlertsByUser(int userId) {
         return alertRepository.findByUserIdAndIsReadFalseOrderByAlertDateDesc(userId);
     }
@@ -25,6 +72,24 @@ public class AlertService {
                 .orElseThrow(() -> new RuntimeException("Alert not found"));
         
         alert.setIsRead(true);
-        return alertRepository.save(alert);
+        Alert saved = alertRepository.save(alert);
+        resourceVersions.bump(saved.getUserId(), ResourceVersions.Resource.ALERTS);
+        return saved;
+    }
+
+    public AlertSetting getAlertSetting(int userId) {
+        return alertSettingRepository.findById(userId).orElseGet(() -> {
+            AlertSetting setting = new AlertSetting();
+            setting.setUserId(userId);
+            return setting;
+        });
+    }
+
+    public AlertSetting updateAlertSetting(int userId, AlertSetting settingDetails) {
+        AlertSetting setting = getAlertSetting(userId);
+        setting.setDailyCalorieLimit(settingDetails.getDailyCalorieLimit());
+        AlertSetting saved = alertSettingRepository.save(setting);
+        alertRuleEngine.settingsChanged(userId);
+        return saved;
     }
 }
\ No newline at end of file
@@ -1,25 +1,37 @@
 package com.health.tracker.service;
 
+import com.health.tracker.dto.AccountPrincipal;
+import com.health.tracker.dto.LoadUserRole;
 import com.health.tracker.dto.LoginRequest;
 import com.health.tracker.dto.TokenResponse;
 import com.health.tracker.dto.UserRegisterResponse;
+import com.health.tracker.entity.AccountLogin;
 import com.health.tracker.entity.Admin;
 import com.health.tracker.entity.Users;
 import com.health.tracker.repository.AdminRepository;
 import com.health.tracker.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @Transactional
@@ -36,80 +48,79 @@ public class AuthService {
     @Autowired
     private JwtService jwtService;
 
-    private final BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder(12);
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private AccountIndex accountIndex;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final ExecutorService passwordExecutor;
+
+    public AuthService(@Value("${auth.password-hash.threads:2}") int threads,
+                       @Value("${auth.password-hash.queue-capacity:64}") int queueCapacity) {
+        AtomicInteger count = new AtomicInteger();
+        this.passwordExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        passwordExecutor.shutdownNow();
+    }
 
     public UserRegisterResponse userRegister(Users users) {
-        if(userRepo.existsByEmail(users.getEmail())){
+        if(accountIndex.exists(users.getEmail())){
             throw new IllegalArgumentException("This Email already exists.");
         }
-        if(userRepo.existsByContact(users.getContact())){
+        if(accountIndex.exists(users.getContact())){
             throw new IllegalArgumentException("This Contact already exists.");
         }
 
-        users.setPassword(bCryptPasswordEncoder.encode(users.getPassword()));
+        users.setPassword(passwordEncoder.encode(users.getPassword()));
 
         Users res = userRepo.save(users);
+        accountIndex.index(res);
         UserRegisterResponse ur = new UserRegisterResponse(res.getId(), res.getName(), res.getEmail(), res.getContact());
         return ur;
     }
 
-    public TokenResponse verifyUser(LoginRequest loginRequest) {
-        // Authenticate the user. Throws AuthenticationException on failure.
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getLogin(), loginRequest.getPassword())
-        );
-
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String login = userDetails.getUsername(); // This is the email/contact
-        String role = userDetails.getAuthorities().iterator().next().getAuthority().replace("ROLE_", "");
-
-        // Determine the actual User ID to return to the frontend
-        Integer authenticatedUserId = null;
-        
-        // Find the user entity to get its ID
-        if(role.equals("USER")) {
-            Users user = userRepo.findByEmail(login);
-            if (user == null) {
-                user = userRepo.findByContact(login);
-            }
-            if (user != null) {
-                authenticatedUserId = user.getId();
-            }
-        } else if(role.equals("ADMIN")){
-            Admin admin = adminRepository.findByEmail(login);
-            if (admin == null) {
-                admin = adminRepository.findByContact(login);
-            }
-            if (admin != null) {
-                authenticatedUserId = admin.getId();
-            }
+    // Password checks run here, not on the request thread: BCrypt is CPU-bound on purpose, so a
+    // burst of logins is held to a few cores and the excess is turned away instead of queuing
+    // without bound.
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public CompletableFuture<TokenResponse> verifyUser(LoginRequest loginRequest) {
+        try {
+            return CompletableFuture.supplyAsync(() -> issueTokens(authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getLogin(), loginRequest.getPassword())
+            )), passwordExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new LoginBusyException("Too many logins in progress, please retry"));
         }
+    }
 
+    // The principal was loaded once by MyUserDetailService and already carries the id and role
+    private TokenResponse issueTokens(Authentication authentication) {
+        AccountPrincipal principal = (AccountPrincipal) authentication.getPrincipal();
+        String login = principal.getUsername(); // This is the email/contact
+        String role = principal.getRole().name();
 
         String activeToken = jwtService.generateActiveToken(login, role);
         String refreshToken = jwtService.generateRefreshToken(login, role);
 
-        // Update refresh token in DB
-        if(refreshToken != null){
-            if(role.equals("USER")) {
-                Users user = userRepo.findByEmail(login);
-                if (user == null) {
-                    user = userRepo.findByContact(login);
-                }
-                user.setRefresh_token(refreshToken);
-                userRepo.save(user);
-            } else if(role.equals("ADMIN")){
-                Admin admin = adminRepository.findByEmail(login);
-                if (admin == null) {
-                    admin = adminRepository.findByContact(login);
-                }
-                admin.setRefresh_token(refreshToken);
-                adminRepository.save(admin);
-            }
+        if (principal.getRole() == LoadUserRole.ADMIN) {
+            adminRepository.updateRefreshToken(principal.getId(), refreshToken);
+        } else {
+            userRepo.updateRefreshToken(principal.getId(), refreshToken);
         }
 
-        // Return the authenticatedUserId in the TokenResponse
-        return new TokenResponse(activeToken, refreshToken, authenticatedUserId, role);
+        return new TokenResponse(activeToken, refreshToken, principal.getId(), role);
     }
 
     public Map<String, String> getRefreshToken(String refreshToken) {
@@ -129,45 +140,33 @@ public class AuthService {
     }
 
     public Map<String, String> logout(String username, String role) {
+        principalCache.invalidate(username);
 
-        if(role.equals("USER")){
-            Users user = userRepo.findByEmail(username);
-            if (user == null) {
-                user = userRepo.findByContact(username);
-            }
-
-            if (user != null) {
-                user.setRefresh_token(null);
-                userRepo.save(user);
-                return Map.of("msg", "User "+ username + " successfully logout.");
-            }
-        }else{
-            Admin admin = adminRepository.findByEmail(username);
-            if (admin == null) {
-                admin = adminRepository.findByContact(username);
-            }
+        // The token role picks the table, so a login held by the other kind of account is not touched
+        AccountLogin account = accountIndex.find(username)
+                .filter(entry -> entry.getRole().name().equals(role))
+                .orElseThrow(() -> new RuntimeException("Error Logout."));
 
-            if (admin != null) {
-                admin.setRefresh_token(null);
-                adminRepository.save(admin);
-                return Map.of("msg", "Emp "+ username + " successfully logout.");
-            }
+        if (account.getRole() == LoadUserRole.USER) {
+            userRepo.updateRefreshToken(account.getAccountId(), null);
+            return Map.of("msg", "User "+ username + " successfully logout.");
         }
-
-        throw new RuntimeException("Error Logout.");
+        adminRepository.updateRefreshToken(account.getAccountId(), null);
+        return Map.of("msg", "Emp "+ username + " successfully logout.");
     }
 
 public UserRegisterResponse adminRegister(Admin admin) {
-        if(userRepo.existsByEmail(admin.getEmail()) || adminRepository.findByEmail(admin.getEmail()) != null){
+        if(accountIndex.exists(admin.getEmail())){
             throw new IllegalArgumentException("This Email already exists for a user or admin.");
         }
-        if(userRepo.existsByContact(admin.getContact()) || adminRepository.findByContact(admin.getContact()) != null){
+        if(accountIndex.exists(admin.getContact())){
             throw new IllegalArgumentException("This Contact already exists for a user or admin.");
         }
 
-        admin.setPassword(bCryptPasswordEncoder.encode(admin.getPassword()));
+        admin.setPassword(passwordEncoder.encode(admin.getPassword()));
 
         Admin res = adminRepository.save(admin);
+        accountIndex.index(res);
         // Reusing UserRegisterResponse as it has the same fields needed (id, name, email, contact)
         UserRegisterResponse ar = new UserRegisterResponse(res.getId(), res.getName(), res.getEmail(), res.getContact());
         return ar;
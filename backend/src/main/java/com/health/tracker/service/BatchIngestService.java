@@ -0,0 +1,272 @@
+package com.health.tracker.service;
+
+import com.health.tracker.dto.ActivityEvent;
+import com.health.tracker.dto.BatchResult;
+import com.health.tracker.entity.Exercise;
+import com.health.tracker.entity.HealthMetric;
+import com.health.tracker.entity.Meal;
+import com.health.tracker.dto.HealthProgressRow;
+import com.health.tracker.repository.DailyActivityRollupRepository;
+import com.health.tracker.repository.HealthMetricRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Bulk writes for sync integrations. Entities use IDENTITY ids, which stops Hibernate from
+// batching inserts, so rows go through JdbcTemplate.batchUpdate instead; with
+// rewriteBatchedStatements=true Connector/J sends each chunk as one multi-row INSERT.
+@Service
+public class BatchIngestService {
+
+    // Length of the meal_name and exercise_name columns, in characters. A longer name would
+    // fail the whole JDBC batch, so it is rejected per item instead.
+    public static final int MAX_NAME_LENGTH = 255;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private DailyActivityRollupRepository rollupRepository;
+
+    @Autowired
+    private HealthMetricRepository healthMetricRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProfileCache profileCache;
+
+    @Value("${ingest.max-items:10000}")
+    private int maxItems;
+
+    @Value("${ingest.jdbc-batch-size:1000}")
+    private int jdbcBatchSize;
+
+    @Transactional
+    public BatchResult ingestMeals(List<Meal> meals) {
+        checkSize(meals);
+        BatchResult result = new BatchResult();
+        Map<Integer, Float> heights = findUserHeights(meals.stream().filter(Objects::nonNull).map(Meal::getUserId).toList(), false);
+
+        List<Meal> valid = new ArrayList<>();
+        for (int i = 0; i < meals.size(); i++) {
+            Meal meal = meals.get(i);
+            String error = meal == null ? "Item is empty"
+                    : !heights.containsKey(meal.getUserId()) ? "User not found"
+                    : isBlank(meal.getMealName()) ? "Meal name is required"
+                    : isTooLong(meal.getMealName()) ? "Meal name must be at most " + MAX_NAME_LENGTH + " characters"
+                    : meal.getCaloriesConsumed() < 0 ? "Calories consumed must not be negative"
+                    : null;
+            if (error != null) {
+                result.reject(i, error);
+                continue;
+            }
+            if (meal.getDate() == null) {
+                meal.setDate(LocalDate.now());
+            }
+            valid.add(meal);
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO meal (user_id, meal_name, calories_consumed, date) VALUES (?, ?, ?, ?)",
+                valid, jdbcBatchSize, (ps, meal) -> {
+                    ps.setInt(1, meal.getUserId());
+                    ps.setString(2, meal.getMealName());
+                    ps.setFloat(3, meal.getCaloriesConsumed());
+                    ps.setDate(4, Date.valueOf(meal.getDate()));
+                });
+
+        // One rollup upsert per (user, day) rather than per row
+        Map<DayKey, double[]> days = new LinkedHashMap<>();
+        for (Meal meal : valid) {
+            double[] totals = days.computeIfAbsent(new DayKey(meal.getUserId(), meal.getDate()), k -> new double[2]);
+            totals[0]++;
+            totals[1] += meal.getCaloriesConsumed();
+        }
+        days.forEach((day, totals) -> {
+            rollupRepository.addMeals(day.userId, day.date, (int) totals[0], totals[1]);
+            eventPublisher.publishEvent(new ActivityEvent(ActivityEvent.Type.MEALS,
+                    day.userId, day.date, (int) totals[0], totals[1]));
+        });
+
+        result.setAccepted(valid.size());
+        return result;
+    }
+
+    @Transactional
+    public BatchResult ingestExercises(List<Exercise> exercises) {
+        checkSize(exercises);
+        BatchResult result = new BatchResult();
+        Map<Integer, Float> heights = findUserHeights(exercises.stream().filter(Objects::nonNull).map(Exercise::getUserId).toList(), false);
+
+        List<Exercise> valid = new ArrayList<>();
+        for (int i = 0; i < exercises.size(); i++) {
+            Exercise exercise = exercises.get(i);
+            String error = exercise == null ? "Item is empty"
+                    : !heights.containsKey(exercise.getUserId()) ? "User not found"
+                    : isBlank(exercise.getExerciseName()) ? "Exercise name is required"
+                    : isTooLong(exercise.getExerciseName()) ? "Exercise name must be at most " + MAX_NAME_LENGTH + " characters"
+                    : exercise.getDurationMinutes() < 0 ? "Duration must not be negative"
+                    : exercise.getCaloriesBurned() < 0 ? "Calories burned must not be negative"
+                    : null;
+            if (error != null) {
+                result.reject(i, error);
+                continue;
+            }
+            if (exercise.getDate() == null) {
+                exercise.setDate(LocalDate.now());
+            }
+            valid.add(exercise);
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO exercise (user_id, exercise_name, duration_minutes, calories_burned, date) VALUES (?, ?, ?, ?, ?)",
+                valid, jdbcBatchSize, (ps, exercise) -> {
+                    ps.setInt(1, exercise.getUserId());
+                    ps.setString(2, exercise.getExerciseName());
+                    ps.setInt(3, exercise.getDurationMinutes());
+                    ps.setFloat(4, exercise.getCaloriesBurned());
+                    ps.setDate(5, Date.valueOf(exercise.getDate()));
+                });
+
+        Map<DayKey, double[]> days = new LinkedHashMap<>();
+        for (Exercise exercise : valid) {
+            double[] totals = days.computeIfAbsent(new DayKey(exercise.getUserId(), exercise.getDate()), k -> new double[3]);
+            totals[0]++;
+            totals[1] += exercise.getDurationMinutes();
+            totals[2] += exercise.getCaloriesBurned();
+        }
+        days.forEach((day, totals) -> {
+            rollupRepository.addExercises(day.userId, day.date, (int) totals[0], (long) totals[1], totals[2]);
+            eventPublisher.publishEvent(new ActivityEvent(ActivityEvent.Type.EXERCISES,
+                    day.userId, day.date, (int) totals[0], totals[2]));
+        });
+
+        result.setAccepted(valid.size());
+        return result;
+    }
+
+    @Transactional
+    public BatchResult ingestHealthMetrics(List<HealthMetric> metrics) {
+        checkSize(metrics);
+        BatchResult result = new BatchResult();
+        // Locked like HealthMetricService.recordHealthMetric, so stored deltas are not computed concurrently
+        Map<Integer, Float> heights = findUserHeights(metrics.stream().filter(Objects::nonNull).map(HealthMetric::getUserId).toList(), true);
+
+        List<HealthMetric> valid = new ArrayList<>();
+        // Latest metric per user by date; it becomes the user's current weight
+        Map<Integer, HealthMetric> latest = new HashMap<>();
+        // Earliest date per user; stored deltas are recomputed from there on
+        Map<Integer, LocalDate> earliest = new HashMap<>();
+        for (int i = 0; i < metrics.size(); i++) {
+            HealthMetric metric = metrics.get(i);
+            String error = metric == null ? "Item is empty"
+                    : !heights.containsKey(metric.getUserId()) ? "User not found"
+                    : metric.getWeight() <= 0 ? "Weight must be positive"
+                    : null;
+            if (error != null) {
+                result.reject(i, error);
+                continue;
+            }
+            if (metric.getDate() == null) {
+                metric.setDate(LocalDate.now());
+            }
+            if (metric.getBMI() == 0) {
+                float heightInMeters = HealthMetricService.heightInMeters(heights.get(metric.getUserId()));
+                metric.setBMI(metric.getWeight() / (heightInMeters * heightInMeters));
+            }
+            valid.add(metric);
+            earliest.merge(metric.getUserId(), metric.getDate(), (a, b) -> a.isBefore(b) ? a : b);
+            latest.merge(metric.getUserId(), metric,
+                    (current, candidate) -> candidate.getDate().isBefore(current.getDate()) ? current : candidate);
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO health_metric (user_id, date, weight, bmi, bmi_category) VALUES (?, ?, ?, ?, ?)",
+                valid, jdbcBatchSize, (ps, metric) -> {
+                    ps.setInt(1, metric.getUserId());
+                    ps.setDate(2, Date.valueOf(metric.getDate()));
+                    ps.setFloat(3, metric.getWeight());
+                    ps.setFloat(4, metric.getBMI());
+                    ps.setString(5, HealthProgressRow.bmiCategory(metric.getBMI()));
+                });
+
+        earliest.forEach(healthMetricRepository::refreshProgress);
+
+        // Same guard as UserRepository.updateWeightUnlessBackdated: a backfilled batch whose newest
+        // reading is older than one already stored leaves the current weight alone
+        jdbcTemplate.batchUpdate("UPDATE users SET weight = CASE WHEN EXISTS (" +
+                        "SELECT 1 FROM health_metric WHERE user_id = ? AND date > ?) THEN weight ELSE ? END " +
+                        "WHERE user_id = ?",
+                new ArrayList<>(latest.values()), jdbcBatchSize, (ps, metric) -> {
+                    ps.setInt(1, metric.getUserId());
+                    ps.setDate(2, Date.valueOf(metric.getDate()));
+                    ps.setFloat(3, metric.getWeight());
+                    ps.setInt(4, metric.getUserId());
+                });
+
+        profileCache.invalidate(latest.keySet());
+
+        latest.values().forEach(metric -> eventPublisher.publishEvent(new ActivityEvent(
+                ActivityEvent.Type.HEALTH_METRIC, metric.getUserId(), metric.getDate(), 1, 0)));
+
+        result.setAccepted(valid.size());
+        return result;
+    }
+
+    private void checkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch is empty.");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("Batch exceeds the limit of " + maxItems + " items.");
+        }
+    }
+
+    // One query resolves every referenced user; the height is needed for BMI anyway
+    private Map<Integer, Float> findUserHeights(List<Integer> userIds, boolean lock) {
+        Set<Integer> distinct = new HashSet<>(userIds);
+        Map<Integer, Float> heights = new HashMap<>();
+        if (distinct.isEmpty()) {
+            return heights;
+        }
+        namedParameterJdbcTemplate.query("SELECT user_id, height FROM users WHERE user_id IN (:ids)" + (lock ? " FOR UPDATE" : ""),
+                new MapSqlParameterSource("ids", distinct),
+                rs -> {
+                    heights.put(rs.getInt(1), rs.getFloat(2));
+                });
+        return heights;
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    // Columns count characters, so a supplementary character counts once
+    private boolean isTooLong(String value) {
+        return value.codePointCount(0, value.length()) > MAX_NAME_LENGTH;
+    }
+
+    private record DayKey(int userId, LocalDate date) {
+    }
+}
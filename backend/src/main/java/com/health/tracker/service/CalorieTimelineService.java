@@ -0,0 +1,81 @@
+package com.health.tracker.service;
+
+import com.health.tracker.dto.CalorieTimelineRow;
+import com.health.tracker.dto.DailyCalories;
+import com.health.tracker.repository.ExerciseRepository;
+import com.health.tracker.repository.MealRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+public class CalorieTimelineService {
+
+    public static final LocalDate EARLIEST_DATE = LocalDate.of(1900, 1, 1);
+    public static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
+    @Autowired
+    private MealRepository mealRepository;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    // Merges the per-day meal and exercise totals in a single pass. Both inputs are already
+    // grouped and sorted by date, so a day appears once with whichever side it has
+    // (full outer semantics) and reading stops as soon as the requested page is filled.
+    @Transactional(readOnly = true)
+    public List<CalorieTimelineRow> getTimeline(int userId, LocalDate from, LocalDate to, int page, int size) {
+        List<CalorieTimelineRow> timeline = new ArrayList<>();
+        long toSkip = (long) page * size;
+
+        try (Stream<DailyCalories> meals = mealRepository.streamDailyCaloriesConsumed(userId, from, to);
+             Stream<DailyCalories> exercises = exerciseRepository.streamDailyCaloriesBurned(userId, from, to)) {
+            Iterator<DailyCalories> mealDays = meals.iterator();
+            Iterator<DailyCalories> exerciseDays = exercises.iterator();
+            DailyCalories meal = next(mealDays);
+            DailyCalories exercise = next(exerciseDays);
+
+            while ((meal != null || exercise != null) && timeline.size() < size) {
+                int order = meal == null ? 1 : exercise == null ? -1
+                        : meal.date().compareTo(exercise.date());
+
+                LocalDate date = null;
+                double consumed = 0;
+                double burned = 0;
+                if (order <= 0) {
+                    date = meal.date();
+                    consumed = toDouble(meal.calories());
+                    meal = next(mealDays);
+                }
+                if (order >= 0) {
+                    date = exercise.date();
+                    burned = toDouble(exercise.calories());
+                    exercise = next(exerciseDays);
+                }
+
+                if (toSkip > 0) {
+                    toSkip--;
+                    continue;
+                }
+
+                timeline.add(new CalorieTimelineRow(userId, date, consumed, burned));
+            }
+        }
+
+        return timeline;
+    }
+
+    private DailyCalories next(Iterator<DailyCalories> rows) {
+        return rows.hasNext() ? rows.next() : null;
+    }
+
+    private double toDouble(Double value) {
+        return value != null ? value : 0;
+    }
+}
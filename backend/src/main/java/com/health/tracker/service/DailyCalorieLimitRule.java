@@ -0,0 +1,31 @@
+package com.health.tracker.service;
+
+import com.health.tracker.entity.AlertSetting;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Replaces the after_meal_insert trigger, which hard-coded a 2500 kcal limit
+@Component
+public class DailyCalorieLimitRule implements AlertRule {
+
+    @Value("${alerts.daily-calorie-limit:2500}")
+    private float defaultLimit;
+
+    @Override
+    public String getName() {
+        return "daily-calorie-limit";
+    }
+
+    @Override
+    public String evaluate(int userId, LocalDate date, AlertRuleEngine.DailyTotals totals, AlertSetting setting) {
+        float limit = setting != null && setting.getDailyCalorieLimit() != null
+                ? setting.getDailyCalorieLimit()
+                : defaultLimit;
+        if (totals.getCaloriesConsumed() > limit) {
+            return "Daily calorie limit exceeded! Total: " + Math.round(totals.getCaloriesConsumed() * 100) / 100.0;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,71 @@
+package com.health.tracker.service;
+
+import com.health.tracker.entity.DailyActivityRollup;
+import com.health.tracker.entity.DailyActivityRollupId;
+import com.health.tracker.entity.Exercise;
+import com.health.tracker.entity.Meal;
+import com.health.tracker.repository.DailyActivityRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class DailyRollupService {
+
+    @Autowired
+    private DailyActivityRollupRepository rollupRepository;
+
+    // Callers invoke these inside their own write transaction so the rollup never drifts from the source rows
+    public void mealLogged(Meal meal) {
+        rollupRepository.addMeals(meal.getUserId(), meal.getDate(), 1, meal.getCaloriesConsumed());
+    }
+
+    public void mealDeleted(Meal meal) {
+        rollupRepository.addMeals(meal.getUserId(), meal.getDate(), -1, -meal.getCaloriesConsumed());
+    }
+
+    public void exerciseLogged(Exercise exercise) {
+        rollupRepository.addExercises(exercise.getUserId(), exercise.getDate(), 1,
+                exercise.getDurationMinutes(), exercise.getCaloriesBurned());
+    }
+
+    public void exerciseDeleted(Exercise exercise) {
+        rollupRepository.addExercises(exercise.getUserId(), exercise.getDate(), -1,
+                -exercise.getDurationMinutes(), -exercise.getCaloriesBurned());
+    }
+
+    public Optional<DailyActivityRollup> getRollup(int userId, LocalDate date) {
+        return rollupRepository.findById(new DailyActivityRollupId(userId, date));
+    }
+
+    public List<DailyActivityRollup> getRollups(Collection<DailyActivityRollupId> ids) {
+        return rollupRepository.findAllById(ids);
+    }
+
+    // Backfill job: recomputes every rollup row from the meal and exercise tables
+    @Transactional
+    public Map<String, Object> rebuildAll() {
+        long start = System.currentTimeMillis();
+        rollupRepository.clearAll();
+        int mealDays = rollupRepository.backfillMeals(null);
+        int exerciseRows = rollupRepository.backfillExercises(null);
+        return Map.of(
+                "mealDays", mealDays,
+                "exerciseRows", exerciseRows,
+                "elapsedMillis", System.currentTimeMillis() - start
+        );
+    }
+
+    @Transactional
+    public void rebuildForUser(int userId) {
+        rollupRepository.clearForUser(userId);
+        rollupRepository.backfillMeals(userId);
+        rollupRepository.backfillExercises(userId);
+    }
+}
@@ -0,0 +1,131 @@
+package com.health.tracker.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Everything the dashboard shows in one call. Sections load concurrently on a bounded pool;
+// a section that fails or misses its deadline is reported under "errors" and the rest are
+// still returned. Each section runs in a read-only transaction that ends at the deadline, so
+// its queries carry a JDBC timeout and a late section gives back its thread and connection.
+@Service
+public class DashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MealService mealService;
+
+    @Autowired
+    private ExerciseService exerciseService;
+
+    @Autowired
+    private HealthMetricService healthMetricService;
+
+    @Autowired
+    private AlertService alertService;
+
+    private final ExecutorService executor;
+    private final long sectionTimeoutMillis;
+    private final TransactionTemplate sectionTransaction;
+
+    public DashboardService(PlatformTransactionManager transactionManager,
+                            @Value("${dashboard.executor.threads:16}") int threads,
+                            @Value("${dashboard.executor.queue-capacity:500}") int queueCapacity,
+                            @Value("${dashboard.section-timeout-ms:2000}") long sectionTimeoutMillis) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.sectionTimeoutMillis = sectionTimeoutMillis;
+        this.sectionTransaction = new TransactionTemplate(transactionManager);
+        this.sectionTransaction.setReadOnly(true);
+        // Transaction timeouts are whole seconds; round up so a section is never cut short
+        this.sectionTransaction.setTimeout((int) Math.max(1, (sectionTimeoutMillis + 999) / 1000));
+    }
+
+    public Map<String, Object> getDashboard(int userId, LocalDate date) {
+        Map<String, Future<?>> sections = new LinkedHashMap<>();
+        sections.put("profile", submit(() -> userService.getUserProfile(userId)));
+        sections.put("calorieIntake", submit(() -> mealService.getDailyCalorieIntake(userId, date)));
+        sections.put("exerciseSummary", submit(() -> exerciseService.getDailyExerciseSummary(userId, date)));
+        sections.put("latestMetric", submit(() -> healthMetricService.getLatestHealthMetric(userId).orElse(null)));
+        sections.put("unreadAlerts", submit(() -> alertService.getUnreadAlertsByUser(userId)));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        result.put("userId", userId);
+        result.put("date", date.toString());
+
+        // All sections started together, so they share one deadline
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMillis);
+        sections.forEach((name, future) -> {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                result.put(name, future.get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                result.put(name, null);
+                errors.put(name, "Timed out");
+            } catch (ExecutionException e) {
+                result.put(name, null);
+                if (e.getCause() instanceof RejectedExecutionException) {
+                    errors.put(name, "Busy");
+                } else {
+                    // The cause may carry SQL or driver details; it stays in the log
+                    log.warn("Dashboard section {} failed for user {}", name, userId, e.getCause());
+                    errors.put(name, "Failed");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.put(name, null);
+                errors.put(name, "Interrupted");
+            }
+        });
+
+        result.put("partial", !errors.isEmpty());
+        result.put("errors", errors);
+        return result;
+    }
+
+    // A Future from the pool itself: cancelling it interrupts the worker, which a
+    // CompletableFuture does not
+    private <T> Future<T> submit(Supplier<T> section) {
+        try {
+            return executor.submit(() -> sectionTransaction.execute(status -> section.get()));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
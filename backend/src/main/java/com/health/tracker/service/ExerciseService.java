@@ -1,15 +1,26 @@
 package com.health.tracker.service;
 
-import com.health.tracker.dto.DailyExerciseSummaryDTO;
+import com.health.tracker.dto.ActivityEvent;
+import com.health.tracker.dto.KeysetPage;
+import com.health.tracker.entity.DailyActivityRollup;
 import com.health.tracker.entity.Exercise;
 import com.health.tracker.repository.ExerciseRepository;
+import com.health.tracker.service.writebehind.WriteBehindBuffer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ExerciseService {
@@ -17,42 +28,116 @@ public class ExerciseService {
     @Autowired
     private ExerciseRepository exerciseRepository;
 
+    @Autowired
+    private DailyRollupService dailyRollupService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AggregateService aggregateService;
+
+    @Autowired
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
     public Exercise logExercise(Exercise exercise) {
-        return exerciseRepository.save(exercise);
+        // A posted id of an existing exercise makes save() an update: take the old row out of
+        // the rollup first, so the day ends up counting the exercise once
+        if (exercise.getExerciseId() != 0) {
+            exerciseRepository.findById(exercise.getExerciseId()).ifPresent(previous -> {
+                entityManager.detach(previous);
+                dailyRollupService.exerciseDeleted(previous);
+                eventPublisher.publishEvent(new ActivityEvent(ActivityEvent.Type.EXERCISES,
+                        previous.getUserId(), previous.getDate(), -1, -previous.getCaloriesBurned()));
+            });
+        }
+        Exercise saved = exerciseRepository.save(exercise);
+        dailyRollupService.exerciseLogged(saved);
+        eventPublisher.publishEvent(new ActivityEvent(ActivityEvent.Type.EXERCISES,
+                saved.getUserId(), saved.getDate(), 1, saved.getCaloriesBurned()));
+        return saved;
     }
 
+    // History and daily reads include the user's exercises still in the write-behind buffer
     public List<Exercise> getExercisesByUserAndDate(int userId, LocalDate date) {
-        return exerciseRepository.findByUserIdAndDate(userId, date);
+        return writeBehindBuffer.read(userId, pending -> withPending(exerciseRepository.findByUserIdAndDate(userId, date), pending.exercises(date)));
     }
 
     public List<Exercise> getExercisesByUser(int userId) {
-        return exerciseRepository.findByUserId(userId);
+        return writeBehindBuffer.read(userId, pending -> withPending(exerciseRepository.findByUserId(userId), pending.exercises(null)));
+    }
+
+    public KeysetPage<Exercise> getExercisesPage(int userId, LocalDate from, LocalDate to,
+                                                 LocalDate beforeDate, Integer beforeId, int size) {
+        // Without a cursor start just past the newest row allowed by the range
+        List<Exercise> rows = exerciseRepository.findPageByUserId(userId, from, to,
+                beforeDate != null ? beforeDate : to,
+                beforeId != null ? beforeId : Integer.MAX_VALUE,
+                PageRequest.ofSize(size + 1));
+        return KeysetPage.of(rows, size, Exercise::getDate, Exercise::getExerciseId);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamExercisesByUser(int userId, LocalDate from, LocalDate to, Consumer<Exercise> sink) {
+        try (Stream<Exercise> exercises = exerciseRepository.streamByUserId(userId, from, to)) {
+            exercises.forEach(exercise -> {
+                sink.accept(exercise);
+                // Keep the persistence context from growing with the export
+                entityManager.detach(exercise);
+            });
+        }
     }
 
     public Optional<Exercise> getExerciseById(int exerciseId) {
         return exerciseRepository.findById(exerciseId);
     }
 
+    @Transactional
     public void deleteExercise(int exerciseId) {
-        exerciseRepository.deleteById(exerciseId);
+        exerciseRepository.findById(exerciseId).ifPresent(exercise -> {
+            exerciseRepository.delete(exercise);
+            dailyRollupService.exerciseDeleted(exercise);
+            eventPublisher.publishEvent(new ActivityEvent(ActivityEvent.Type.EXERCISES,
+                    exercise.getUserId(), exercise.getDate(), -1, -exercise.getCaloriesBurned()));
+        });
     }
 
     public Double getTotalCaloriesBurned(int userId, LocalDate date) {
-        return exerciseRepository.getTotalCaloriesBurned(userId, date);
+        return writeBehindBuffer.read(userId, pending -> aggregateService.caloriesBurned(userId, date)
+                + pending.exercises(date).stream().mapToDouble(Exercise::getCaloriesBurned).sum());
     }
 
     public Map<String, Object> getDailyExerciseSummary(int userId, LocalDate date) {
-        DailyExerciseSummaryDTO summary = exerciseRepository.getDailyExerciseSummary(userId, date);
-        Map<String, Object> result = new HashMap<>();
-
-        if (summary != null) {
-            result.put("userId", summary.getUser_id());
-            result.put("date", summary.getDate());
-            result.put("totalExercises", summary.getToatl_exercise());
-            result.put("totalDuration", summary.getTotal_duration());
-            result.put("totalCaloriesBurned", summary.getTotal_calories_burned());
-        }
+        return writeBehindBuffer.read(userId, buffered -> {
+            Optional<DailyActivityRollup> summary = dailyRollupService.getRollup(userId, date);
+            List<Exercise> pending = buffered.exercises(date);
+            Map<String, Object> result = new HashMap<>();
+
+            long exercises = pending.size() + summary.map(DailyActivityRollup::getExerciseCount).orElse(0);
+            if (exercises > 0) {
+                result.put("userId", userId);
+                result.put("date", date);
+                result.put("totalExercises", exercises);
+                result.put("totalDuration", summary.map(DailyActivityRollup::getDurationMinutes).orElse(0L)
+                        + pending.stream().mapToLong(Exercise::getDurationMinutes).sum());
+                result.put("totalCaloriesBurned", summary.map(DailyActivityRollup::getCaloriesBurned).orElse(0.0)
+                        + pending.stream().mapToDouble(Exercise::getCaloriesBurned).sum());
+            }
 
-        return result;
+            return result;
+        });
+    }
+
+    private List<Exercise> withPending(List<Exercise> exercises, List<Exercise> pending) {
+        if (pending.isEmpty()) {
+            return exercises;
+        }
+        List<Exercise> merged = new ArrayList<>(exercises);
+        merged.addAll(pending);
+        return merged;
     }
 }
\ No newline at end of file
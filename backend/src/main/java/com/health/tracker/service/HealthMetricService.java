@@ -1,18 +1,27 @@
 // src/main/java/com/health/tracker/service/HealthMetricService.java
 package com.health.tracker.service;
 
+import com.health.tracker.dto.ActivityEvent;
+import com.health.tracker.dto.CalorieTimelineRow;
+import com.health.tracker.dto.HealthProgressRow;
+import com.health.tracker.dto.KeysetPage;
+import com.health.tracker.dto.UserProfileDTO;
 import com.health.tracker.entity.HealthMetric;
 import com.health.tracker.repository.HealthMetricRepository;
 import com.health.tracker.repository.UserRepository; // NEW IMPORT
-import com.health.tracker.entity.Users; // NEW IMPORT
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class HealthMetricService {
@@ -23,55 +32,121 @@ public class HealthMetricService {
     @Autowired // FIX: Inject UserRepository
     private UserRepository userRepository;
 
+    @Autowired
+    private CalorieTimelineService calorieTimelineService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProfileCache profileCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Height used when the user has none on file (the old before_health_metric_insert trigger's value)
+    static final float DEFAULT_HEIGHT_METERS = 1.75f;
+
+    // One transaction: the users update (which also locks the user), one neighbour lookup and the
+    // insert, plus the snapshot patch when the reading is the newest. The height comes from the
+    // profile cache instead of loading the Users entity.
+    @Transactional
     public HealthMetric recordHealthMetric(HealthMetric healthMetric) {
-        // FIX: Retrieve user to get actual height and prepare for weight update
-        Users user = userRepository.findById(healthMetric.getUserId())
-            .orElseThrow(() -> new RuntimeException("User not found"));
+        UserProfileDTO profile = profileCache.get(healthMetric.getUserId());
+        if (profile == null) {
+            throw new RuntimeException("User not found");
+        }
 
         // Calculate BMI if not provided
         if (healthMetric.getBMI() == 0 && healthMetric.getWeight() > 0) {
-            // Use the actual user's height (in cm) converted to meters (m) for calculation
-            float heightInMeters = user.getHeight() / 100.0f;
+            healthMetric.setBMI(calculateBMI(healthMetric.getWeight(), heightInMeters(profile.getHeight())));
+        }
 
-            float bmi = calculateBMI(healthMetric.getWeight(), heightInMeters);
-            healthMetric.setBMI(bmi);
+        if (userRepository.updateWeightUnlessBackdated(healthMetric.getUserId(),
+                healthMetric.getWeight(), healthMetric.getDate()) == 0) {
+            throw new RuntimeException("User not found");
         }
 
-        // 1. Save the new metric to the HealthMetric table (history)
+        // Progress columns are stored with the row. A backdated reading also becomes the
+        // predecessor of the first reading after it, whose deltas are updated to match.
+        HealthMetric previous = null;
+        HealthMetric next = null;
+        for (HealthMetric neighbour : healthMetricRepository.findNeighbours(healthMetric.getUserId(), healthMetric.getDate())) {
+            if (neighbour.getDate().isAfter(healthMetric.getDate())) {
+                next = neighbour;
+            } else {
+                previous = neighbour;
+            }
+        }
+        applyPrevious(healthMetric, previous != null ? previous.getWeight() : null);
+        healthMetric.setBmiCategory(HealthProgressRow.bmiCategory(healthMetric.getBMI()));
+
         HealthMetric savedMetric = healthMetricRepository.save(healthMetric);
+        if (next != null) {
+            applyPrevious(next, savedMetric.getWeight());
+        } else {
+            profileCache.latestReadingRecorded(savedMetric.getUserId(), savedMetric.getWeight(),
+                    savedMetric.getBMI(), savedMetric.getBmiCategory());
+        }
 
-        // 2. FIX: Update the user's current weight in the Users table
-        user.setWeight(healthMetric.getWeight());
-        userRepository.save(user);
+        eventPublisher.publishEvent(new ActivityEvent(ActivityEvent.Type.HEALTH_METRIC,
+                savedMetric.getUserId(), savedMetric.getDate(), 1, 0));
 
         return savedMetric;
     }
 
+    // Heights are stored in centimetres
+    static float heightInMeters(Float heightInCentimeters) {
+        return heightInCentimeters != null && heightInCentimeters > 0
+                ? heightInCentimeters / 100.0f
+                : DEFAULT_HEIGHT_METERS;
+    }
+
+    private void applyPrevious(HealthMetric metric, Float previousWeight) {
+        metric.setPreviousWeight(previousWeight);
+        metric.setWeightChange(previousWeight != null ? metric.getWeight() - previousWeight : null);
+    }
+
     public List<HealthMetric> getHealthMetricsByUser(int userId) {
         return healthMetricRepository.findByUserIdOrderByDateDesc(userId);
     }
 
+    public KeysetPage<HealthMetric> getHealthMetricsPage(int userId, LocalDate from, LocalDate to,
+                                                         LocalDate beforeDate, Integer beforeId, int size) {
+        // Without a cursor start just past the newest row allowed by the range
+        List<HealthMetric> rows = healthMetricRepository.findPageByUserId(userId, from, to,
+                beforeDate != null ? beforeDate : to,
+                beforeId != null ? beforeId : Integer.MAX_VALUE,
+                PageRequest.ofSize(size + 1));
+        return KeysetPage.of(rows, size, HealthMetric::getDate, HealthMetric::getMetricId);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamHealthMetricsByUser(int userId, LocalDate from, LocalDate to, Consumer<HealthMetric> sink) {
+        try (Stream<HealthMetric> metrics = healthMetricRepository.streamByUserId(userId, from, to)) {
+            metrics.forEach(metric -> {
+                sink.accept(metric);
+                // Keep the persistence context from growing with the export
+                entityManager.detach(metric);
+            });
+        }
+    }
+
     public Optional<HealthMetric> getLatestHealthMetric(int userId) {
         return Optional.ofNullable(healthMetricRepository.findTopByUserIdOrderByDateDesc(userId));
     }
 
-    public List<Map<String, Object>> getHealthProgress(int userId) {
-        List<Object[]> progressData = healthMetricRepository.getHealthProgressView(userId);
-        List<Map<String, Object>> progress = new ArrayList<>();
-
-        for (Object[] row : progressData) {
-            Map<String, Object> record = new HashMap<>();
-            record.put("userId", row[0]);
-            record.put("date", row[1]);
-            record.put("weight", row[2]);
-            record.put("bmi", row[3]);
-            record.put("bmiCategory", row[4]);
-            // Adjust index for weight_change if needed, assuming it's the 6th element (index 5)
-            record.put("weightChange", row.length > 6 ? row[6] : null); // Check array length
-            progress.add(record);
-        }
+    public List<HealthProgressRow> getHealthProgress(int userId) {
+        return healthMetricRepository.findProgressByUserId(userId);
+    }
 
-        return progress;
+    public KeysetPage<HealthProgressRow> getHealthProgressPage(int userId, LocalDate from, LocalDate to,
+                                                               LocalDate beforeDate, Integer beforeId, int size) {
+        List<HealthProgressRow> rows = healthMetricRepository.findProgressPageByUserId(userId, from, to,
+                beforeDate != null ? beforeDate : to,
+                beforeId != null ? beforeId : Integer.MAX_VALUE,
+                PageRequest.ofSize(size + 1));
+        return KeysetPage.of(rows, size, HealthProgressRow::date, HealthProgressRow::metricId);
     }
 
     private float calculateBMI(float weight, float heightInMeters) {
@@ -81,18 +156,15 @@ public class HealthMetricService {
         return weight / (heightInMeters * heightInMeters);
     }
 
-    public List<Map<String, Object>> getCaloriesConsumedBurned(int userId) {
-        List<Object[]> caloriesConsumedBurnedView = healthMetricRepository.getCaloriesConsumedBurnedView(userId);
-        List<Map<String, Object>> list = new ArrayList<>();
-
-        for (Object[] row : caloriesConsumedBurnedView) {
-            Map<String, Object> record = new HashMap<>();
-            record.put("userId", row[0]);
-            record.put("date", row[1]);
-            record.put("calories_consumed", row[2]);
-            record.put("calories_burned", row[3]);
-            list.add(record);
-        }
-        return list;
+    public List<CalorieTimelineRow> getCaloriesConsumedBurned(int userId) {
+        return calorieTimelineService.getTimeline(userId,
+                CalorieTimelineService.EARLIEST_DATE, CalorieTimelineService.LATEST_DATE, 0, Integer.MAX_VALUE);
+    }
+
+    public List<CalorieTimelineRow> getCaloriesTimeline(int userId, LocalDate from, LocalDate to, int page, int size) {
+        return calorieTimelineService.getTimeline(userId,
+                from != null ? from : CalorieTimelineService.EARLIEST_DATE,
+                to != null ? to : CalorieTimelineService.LATEST_DATE,
+                page, size);
     }
 }
\ No newline at end of file
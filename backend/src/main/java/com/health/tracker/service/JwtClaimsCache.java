@@ -0,0 +1,98 @@
+package com.health.tracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class JwtClaimsCache implements MeterBinder {
+
+    private final JwtService jwtService;
+
+    // Keyed by SHA-256 of the token so raw bearer tokens are never held in memory as keys
+    private final Cache<String, Claims> verifiedClaims;
+
+    // Set once the registry binds this cache; benchmarks construct it without one
+    private volatile Timer parseTimer;
+
+    public JwtClaimsCache(JwtService jwtService,
+                          @Value("${jwt.claims-cache.max-size:10000}") long maxSize) {
+        this.jwtService = jwtService;
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ClaimsExpiry())
+                .recordStats()
+                .build();
+    }
+
+    // Returns claims of a signature-checked, unexpired token, parsing it only on the first request
+    public Claims getVerifiedClaims(String token) {
+        String key = digest(token);
+        Claims claims = verifiedClaims.getIfPresent(key);
+        if (claims != null) {
+            return claims;
+        }
+
+        Timer timer = parseTimer;
+        claims = timer != null
+                ? timer.record(() -> jwtService.extractClaims(token))
+                : jwtService.extractClaims(token);
+        if (claims.getExpiration() != null) {
+            verifiedClaims.put(key, claims);
+        }
+        return claims;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, verifiedClaims, "jwt.claims");
+        parseTimer = Timer.builder("jwt.parse")
+                .description("Signature check and parse of bearer tokens missing from the claims cache")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Each entry lives exactly until the token's own exp claim
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.health.tracker.service;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.InvalidKeyException;
@@ -20,9 +22,15 @@ public class JwtService {
 
     private final SecretKey secretKey;
 
+    // Parsers are immutable and thread-safe, so build it once instead of per call
+    private final JwtParser jwtParser;
+
     public JwtService(@Value("${jwt.secret}") String secret) {
         // Convert secret string to SecretKey
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
     }
 
 
@@ -68,29 +76,33 @@ public class JwtService {
         }
     }
 
-    public String extractUserName(String token) {
+    // Verifies the signature and parses the token once; callers read every claim from the result
+    public Claims extractClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (JwtException | IllegalArgumentException e) {
             throw new RuntimeException(e);
         }
     }
 
+    public String extractUserName(String token) {
+        return extractClaims(token).getSubject();
+    }
+
     public boolean validateToken(String token, UserDetails userDetails) {
         try {
-            String username = extractUserName(token);
-            Date expiration = extractExpiration(token);
-            return username.equals(userDetails.getUsername()) && !expiration.before(new Date());
+            return validateToken(extractClaims(token), userDetails);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    public boolean validateToken(Claims claims, UserDetails userDetails) {
+        String username = claims.getSubject();
+        Date expiration = claims.getExpiration();
+        return username.equals(userDetails.getUsername()) && !expiration.before(new Date());
+    }
+
     public boolean validateRegisterToken(String token) {
         try {
             Date expiration = extractExpiration(token);
@@ -101,28 +113,14 @@ public class JwtService {
     }
 
     private Date extractExpiration(String token) {
-        try {
-            return Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getExpiration();
-        } catch (JwtException | IllegalArgumentException e) {
-            throw new RuntimeException(e);
-        }
+        return extractClaims(token).getExpiration();
     }
 
     public String extractRole(String token) {
-        try {
-            return (String) Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .get("role");
-        } catch (JwtException | IllegalArgumentException e) {
-            throw new RuntimeException(e);
-        }
+        return extractRole(extractClaims(token));
+    }
+
+    public String extractRole(Claims claims) {
+        return claims.get("role", String.class);
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.health.tracker.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when the password-hashing pool and its queue are full
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class LoginBusyException extends RuntimeException {
+    public LoginBusyException(String message) {
+        super(message);
+    }
+}
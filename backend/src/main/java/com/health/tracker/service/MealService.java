@@ -1,60 +1,148 @@
 package com.health.tracker.service;
 
-import com.health.tracker.dto.CaloriSummaryDTO;
-import com.health.tracker.dto.UserProfileDTO;
+import com.health.tracker.dto.ActivityEvent;
+import com.health.tracker.dto.KeysetPage;
+import com.health.tracker.entity.DailyActivityRollup;
 import com.health.tracker.entity.Meal;
 import com.health.tracker.repository.MealRepository;
+import com.health.tracker.service.writebehind.WriteBehindBuffer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class MealService {
 
+    private static final Logger log = LoggerFactory.getLogger(MealService.class);
+
     @Autowired
     private MealRepository mealRepository;
 
+    @Autowired
+    private DailyRollupService dailyRollupService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AggregateService aggregateService;
+
+    @Autowired
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
     public Meal logMeal(Meal meal) {
-        return mealRepository.save(meal);
+        // A posted id of an existing meal makes save() an update: take the old row out of the
+        // rollup first, so the day ends up counting the meal once
+        if (meal.getMealId() != 0) {
+            mealRepository.findById(meal.getMealId()).ifPresent(previous -> {
+                entityManager.detach(previous);
+                dailyRollupService.mealDeleted(previous);
+                eventPublisher.publishEvent(new ActivityEvent(ActivityEvent.Type.MEALS,
+                        previous.getUserId(), previous.getDate(), -1, -previous.getCaloriesConsumed()));
+            });
+        }
+        Meal saved = mealRepository.save(meal);
+        dailyRollupService.mealLogged(saved);
+        eventPublisher.publishEvent(new ActivityEvent(ActivityEvent.Type.MEALS,
+                saved.getUserId(), saved.getDate(), 1, saved.getCaloriesConsumed()));
+        return saved;
     }
 
+    // History and daily reads include the user's meals still in the write-behind buffer
     public List<Meal> getMealsByUserAndDate(int userId, LocalDate date) {
-        return mealRepository.findByUserIdAndDate(userId, date);
+        return writeBehindBuffer.read(userId, pending -> withPending(mealRepository.findByUserIdAndDate(userId, date), pending.meals(date)));
     }
 
     public List<Meal> getMealsByUser(int userId) {
-        return mealRepository.findByUserId(userId);
+        return writeBehindBuffer.read(userId, pending -> withPending(mealRepository.findByUserId(userId), pending.meals(null)));
+    }
+
+    public KeysetPage<Meal> getMealsPage(int userId, LocalDate from, LocalDate to,
+                                         LocalDate beforeDate, Integer beforeId, int size) {
+        // Without a cursor start just past the newest row allowed by the range
+        List<Meal> rows = mealRepository.findPageByUserId(userId, from, to,
+                beforeDate != null ? beforeDate : to,
+                beforeId != null ? beforeId : Integer.MAX_VALUE,
+                PageRequest.ofSize(size + 1));
+        return KeysetPage.of(rows, size, Meal::getDate, Meal::getMealId);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamMealsByUser(int userId, LocalDate from, LocalDate to, Consumer<Meal> sink) {
+        try (Stream<Meal> meals = mealRepository.streamByUserId(userId, from, to)) {
+            meals.forEach(meal -> {
+                sink.accept(meal);
+                // Keep the persistence context from growing with the export
+                entityManager.detach(meal);
+            });
+        }
     }
 
     public Optional<Meal> getMealById(int mealId) {
         return mealRepository.findById(mealId);
     }
 
+    @Transactional
     public void deleteMeal(int mealId) {
-        mealRepository.deleteById(mealId);
+        mealRepository.findById(mealId).ifPresent(meal -> {
+            mealRepository.delete(meal);
+            dailyRollupService.mealDeleted(meal);
+            eventPublisher.publishEvent(new ActivityEvent(ActivityEvent.Type.MEALS,
+                    meal.getUserId(), meal.getDate(), -1, -meal.getCaloriesConsumed()));
+        });
     }
 
     public Double getTotalCaloriesConsumed(int userId, LocalDate date) {
-        return mealRepository.getTotalCaloriesConsumed(userId, date);
+        return writeBehindBuffer.read(userId, pending -> aggregateService.caloriesConsumed(userId, date)
+                + pending.meals(date).stream().mapToDouble(Meal::getCaloriesConsumed).sum());
     }
 
     public Map<String, Object> getDailyCalorieIntake(int userId, LocalDate date) {
-        CaloriSummaryDTO intake = mealRepository.getDailyCalorieIntake(userId, date);
-        Map<String, Object> result = new HashMap<>();
-        System.out.println("LLL: "+ userId + "  "+ date + intake);
-
-        if (intake != null) {
-            result.put("userId", intake.getUser_id());
-            result.put("date", intake.getDate());
-            result.put("totalMeals", intake.getToatl_meal());
-            result.put("totalCaloriesConsumed", intake.getTotal_calori());
-            result.put("avgCaloriesPerMeal", intake.getAvg_calorie_per_meal());
-        }
+        return writeBehindBuffer.read(userId, buffered -> {
+            Optional<DailyActivityRollup> intake = dailyRollupService.getRollup(userId, date);
+            List<Meal> pending = buffered.meals(date);
+            Map<String, Object> result = new HashMap<>();
+            log.debug("Daily calorie intake for user {} on {}: {} (+{} buffered)", userId, date, intake, pending.size());
+
+            long meals = pending.size() + intake.map(DailyActivityRollup::getMealCount).orElse(0);
+            if (meals > 0) {
+                double calories = intake.map(DailyActivityRollup::getCaloriesConsumed).orElse(0.0)
+                        + pending.stream().mapToDouble(Meal::getCaloriesConsumed).sum();
+                result.put("userId", userId);
+                result.put("date", date);
+                result.put("totalMeals", meals);
+                result.put("totalCaloriesConsumed", calories);
+                result.put("avgCaloriesPerMeal", calories / meals);
+            }
 
-        return result;
+            return result;
+        });
+    }
+
+    private List<Meal> withPending(List<Meal> meals, List<Meal> pending) {
+        if (pending.isEmpty()) {
+            return meals;
+        }
+        List<Meal> merged = new ArrayList<>(meals);
+        merged.addAll(pending);
+        return merged;
     }
 }
\ No newline at end of file
@@ -1,20 +1,26 @@
 package com.health.tracker.service;
 
+import com.health.tracker.config.logging.SamplingTurboFilter;
+import com.health.tracker.dto.AccountPrincipal;
 import com.health.tracker.dto.LoadUser;
 import com.health.tracker.dto.LoadUserRole;
-import com.health.tracker.entity.Admin;
-import com.health.tracker.entity.Users;
 import com.health.tracker.repository.AdminRepository;
 import com.health.tracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class MyUserDetailService implements UserDetailsService {
+public class MyUserDetailService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger log = LoggerFactory.getLogger(MyUserDetailService.class);
 
     @Autowired
     private UserRepository userRepo;
@@ -22,69 +28,57 @@ public class MyUserDetailService implements UserDetailsService {
     @Autowired
     private AdminRepository adminRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private AccountIndex accountIndex;
+
     @Override
     public UserDetails loadUserByUsername(String loginInput) throws UsernameNotFoundException {
 
-        LoadUser loadUser = null;
+        LoadUser loadUser = principalCache.get(loginInput);
+        if (loadUser == null) {
+            loadUser = findLoadUser(loginInput);
+            principalCache.put(loginInput, loadUser);
+        }
 
-        if (loginInput.contains("@")) {
-            // Email login
-            Users user = userRepo.findByEmail(loginInput);
-            if (user != null) {
-                loadUser = mapToLoadUser(user);
-            } else {
-                Admin admin = adminRepository.findByEmail(loginInput);
-                if (admin != null) {
-                    loadUser = mapToLoadUser(admin);
-                }
-            }
+        return new AccountPrincipal(loadUser);
+    }
+
+    // Called by Spring Security after a successful login when the stored hash was made with a
+    // lower BCrypt strength than auth.bcrypt.strength, so hashes follow the setting over time
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        AccountPrincipal principal = (AccountPrincipal) user;
+        if (principal.getRole() == LoadUserRole.ADMIN) {
+            adminRepository.updatePassword(principal.getId(), newPassword);
         } else {
-            // Contact login
-            Users user = userRepo.findByContact(loginInput);
-            if (user != null) {
-                loadUser = mapToLoadUser(user);
-            } else {
-                Admin admin = adminRepository.findByContact(loginInput);
-                if (admin != null) {
-                    loadUser = mapToLoadUser(admin);
-                }
-            }
+            userRepo.updatePassword(principal.getId(), newPassword);
         }
+        accountIndex.passwordChanged(principal.getRole(), principal.getId(), newPassword);
+        principalCache.invalidate(principal.getEmail(), principal.getContact());
+        return principal.withPassword(newPassword);
+    }
 
+    // Builds the principal straight from verified JWT claims, without touching the database
+    public UserDetails loadUserFromClaims(String subject, String role) {
+        return User.withUsername(subject)
+                .password("")
+                .authorities(role)
+                .build();
+    }
+
+    // One primary-key lookup in the account index, whichever table the account lives in
+    private LoadUser findLoadUser(String loginInput) throws UsernameNotFoundException {
+        LoadUser loadUser = accountIndex.findLoadUser(loginInput);
         if (loadUser == null) {
             throw new UsernameNotFoundException("User not found with: " + loginInput);
         }
 
-        System.out.println("Authenticated user: " + (loadUser.getEmail() != null ? loadUser.getEmail() : loadUser.getContact()));
-
-        return User.builder()
-                .username(loadUser.getEmail() != null ? loadUser.getEmail() : loadUser.getContact())
-                //.username(String.valueOf(loadUser.getId()))
-                .password(loadUser.getPassword())
-                .roles(String.valueOf(loadUser.getRole()))
-                .build();
-    }
-
-    //  Helper methods to reduce repetition
-    private LoadUser mapToLoadUser(Users user) {
-        LoadUser loadUser = new LoadUser();
-        loadUser.setId(user.getId());
-        loadUser.setEmail(user.getEmail());
-        loadUser.setContact(user.getContact());
-        loadUser.setRole(LoadUserRole.valueOf(user.getRole().name()));
-        loadUser.setPassword(user.getPassword());
-        loadUser.setRefresh_token(user.getRefresh_token());
-        return loadUser;
-    }
+        log.info(SamplingTurboFilter.SAMPLED, "Loaded account {} ({})", loadUser.getId(), loadUser.getRole());
 
-    private LoadUser mapToLoadUser(Admin admin) {
-        LoadUser loadUser = new LoadUser();
-        loadUser.setId(admin.getId());
-        loadUser.setEmail(admin.getEmail());
-        loadUser.setContact(admin.getContact());
-        loadUser.setRole(LoadUserRole.valueOf(admin.getRole().name()));
-        loadUser.setPassword(admin.getPassword());
-        loadUser.setRefresh_token(admin.getRefresh_token());
         return loadUser;
     }
 }
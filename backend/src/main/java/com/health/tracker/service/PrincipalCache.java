@@ -0,0 +1,84 @@
+package com.health.tracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.health.tracker.dto.LoadUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+@Service
+public class PrincipalCache implements MeterBinder {
+
+    private final boolean enabled;
+
+    // Holds LoadUser rather than UserDetails: Spring erases credentials on the
+    // UserDetails it hands out after login, which would poison a shared instance
+    private final Cache<String, LoadUser> principals;
+
+    public PrincipalCache(@Value("${auth.principal-cache.enabled:true}") boolean enabled,
+                          @Value("${auth.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${auth.principal-cache.max-size:10000}") long maxSize) {
+        this.enabled = enabled;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, principals, "auth.principals");
+    }
+
+    public LoadUser get(String login) {
+        if (!enabled || login == null) {
+            return null;
+        }
+        String key = AccountIndex.normalize(login);
+        return key == null ? null : principals.getIfPresent(key);
+    }
+
+    public void put(String login, LoadUser loadUser) {
+        String key = AccountIndex.normalize(login);
+        if (enabled && key != null) {
+            principals.put(key, loadUser);
+        }
+    }
+
+    // An account may be cached under both its email and its contact. Keys are normalized like
+    // the account index, so differently cased logins share one entry. Inside a transaction the
+    // entries are evicted again after commit, so a login that reloaded the old row before the
+    // commit cannot keep it cached.
+    public void invalidate(String... logins) {
+        evict(logins);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(logins);
+                }
+            });
+        }
+    }
+
+    private void evict(String... logins) {
+        for (String login : logins) {
+            String key = AccountIndex.normalize(login);
+            if (key != null) {
+                principals.invalidate(key);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        principals.invalidateAll();
+    }
+}
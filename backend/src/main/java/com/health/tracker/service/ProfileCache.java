@@ -0,0 +1,174 @@
+package com.health.tracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.health.tracker.dto.UserProfileDTO;
+import com.health.tracker.entity.UserProfileSnapshot;
+import com.health.tracker.repository.UserProfileSnapshotRepository;
+import com.health.tracker.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Profile lookups in two levels: a bounded in-process Caffeine cache (L1) over the
+// user_profile_snapshot table (L2). Only a miss on both runs user_profile_view, whose
+// correlated MAX(date) subquery is what made every profile load expensive. L2 has no TTL, so
+// it is only written by writers, in their own transaction; see invalidate.
+@Service
+public class ProfileCache implements MeterBinder {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserProfileSnapshotRepository snapshotRepository;
+
+    private final Cache<Integer, UserProfileDTO> profiles;
+
+    private final AtomicLong snapshotHits = new AtomicLong();
+    private final AtomicLong snapshotMisses = new AtomicLong();
+
+    public ProfileCache(@Value("${profile.cache.max-size:100000}") long maxSize,
+                        @Value("${profile.cache.ttl-minutes:60}") long ttlMinutes) {
+        // The TTL is only a safety net for writes that bypass invalidate()
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, profiles, "user.profiles");
+        FunctionCounter.builder("user.profiles.snapshot", snapshotHits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("user.profiles.snapshot", snapshotMisses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(registry);
+    }
+
+    // Returns null when the user does not exist; nulls are not cached
+    public UserProfileDTO get(int userId) {
+        return profiles.get(userId, this::load);
+    }
+
+    // Rewrites the snapshot rows from user_profile_view in the caller's transaction and drops
+    // the L1 entries. The L1 entry is evicted again after commit so a reader that slipped in
+    // before the commit cannot keep it.
+    public void invalidate(Collection<Integer> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        snapshotRepository.deleteByUserIds(userIds);
+        snapshotRepository.refreshFromView(userIds);
+        profiles.invalidateAll(userIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    profiles.invalidateAll(userIds);
+                }
+            });
+        }
+    }
+
+    public void invalidate(int userId) {
+        invalidate(List.of(userId));
+    }
+
+    // A new latest health metric only changes the weight and BMI fields, so both levels are
+    // patched in place rather than dropped; the next lookup still hits. The L1 copy is replaced
+    // after commit, and only if the user is already cached.
+    public void latestReadingRecorded(int userId, float weight, float bmi, String bmiCategory) {
+        snapshotRepository.updateLatestReading(userId, weight, bmi, bmiCategory);
+        Runnable patch = () -> profiles.asMap().computeIfPresent(userId, (id, cached) -> {
+            UserProfileDTO dto = copy(cached);
+            dto.setCurrentWeight(weight);
+            dto.setLastBMIRecorded(bmi);
+            dto.setBmiCategory(bmiCategory);
+            return dto;
+        });
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            patch.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                patch.run();
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = profiles.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", profiles.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("snapshotHitCount", snapshotHits.get());
+        result.put("snapshotMissCount", snapshotMisses.get());
+        return result;
+    }
+
+    private UserProfileDTO load(Integer userId) {
+        UserProfileSnapshot snapshot = snapshotRepository.findById(userId).orElse(null);
+        if (snapshot != null) {
+            snapshotHits.incrementAndGet();
+            return toDto(snapshot);
+        }
+        snapshotMisses.incrementAndGet();
+
+        // Not saved to L2: a write committed while the view was read would leave the stale row
+        // there for good. Writers fill it through invalidate.
+        List<Object[]> rows = userRepository.getUserProfileView(userId);
+        if (rows == null || rows.isEmpty()) {
+            return null;
+        }
+        return new UserProfileDTO(rows.get(0));
+    }
+
+    private UserProfileDTO toDto(UserProfileSnapshot snapshot) {
+        UserProfileDTO dto = new UserProfileDTO();
+        dto.setUserId(snapshot.getUserId());
+        dto.setName(snapshot.getName());
+        dto.setEmail(snapshot.getEmail());
+        dto.setAge(snapshot.getAge());
+        dto.setCurrentWeight(snapshot.getCurrentWeight());
+        dto.setHeight(snapshot.getHeight());
+        dto.setLastBMIRecorded(snapshot.getLastBmiRecorded());
+        dto.setBmiCategory(snapshot.getBmiCategory());
+        return dto;
+    }
+
+    private UserProfileDTO copy(UserProfileDTO source) {
+        UserProfileDTO dto = new UserProfileDTO();
+        dto.setUserId(source.getUserId());
+        dto.setName(source.getName());
+        dto.setEmail(source.getEmail());
+        dto.setAge(source.getAge());
+        dto.setCurrentWeight(source.getCurrentWeight());
+        dto.setHeight(source.getHeight());
+        dto.setLastBMIRecorded(source.getLastBMIRecorded());
+        dto.setBmiCategory(source.getBmiCategory());
+        return dto;
+    }
+}
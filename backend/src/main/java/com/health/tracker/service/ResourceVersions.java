@@ -0,0 +1,89 @@
+package com.health.tracker.service;
+
+import com.health.tracker.dto.ActivityEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-user, per-resource change counters behind the ETags of the history and summary
+// endpoints. Counters live in memory, so the epoch changes on every start: tags issued by a
+// previous run never match. Versions are bumped after the write commits and read before the
+// data is, so a tag never claims newer data than the body it was sent with.
+@Service
+public class ResourceVersions {
+
+    public enum Resource {
+        MEALS('m'),
+        EXERCISES('e'),
+        HEALTH_METRICS('h'),
+        ALERTS('a');
+
+        private final char tag;
+
+        Resource(char tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private final ConcurrentHashMap<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    // Bumped with every per-user counter, for results that span all users
+    private final AtomicLong changes = new AtomicLong();
+
+    public long version(int userId, Resource resource) {
+        AtomicLong version = versions.get(key(userId, resource));
+        return version != null ? version.get() : 0;
+    }
+
+    public long changeCount() {
+        return changes.get();
+    }
+
+    // Strong ETag over one or more resources, e.g. "k3x9-42-m7e2"
+    public String etag(int userId, Resource... resources) {
+        StringBuilder etag = new StringBuilder(32).append('"').append(epoch).append('-').append(userId).append('-');
+        for (Resource resource : resources) {
+            etag.append(resource.tag).append(version(userId, resource));
+        }
+        return etag.append('"').toString();
+    }
+
+    // Call after the write; inside a transaction the bump waits for the commit
+    public void bump(int userId, Resource resource) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(userId, resource);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment(userId, resource);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivity(ActivityEvent event) {
+        switch (event.getType()) {
+            case MEALS -> increment(event.getUserId(), Resource.MEALS);
+            case EXERCISES -> increment(event.getUserId(), Resource.EXERCISES);
+            case HEALTH_METRIC -> increment(event.getUserId(), Resource.HEALTH_METRICS);
+        }
+    }
+
+    private void increment(int userId, Resource resource) {
+        versions.computeIfAbsent(key(userId, resource), k -> new AtomicLong()).incrementAndGet();
+        changes.incrementAndGet();
+    }
+
+    private long key(int userId, Resource resource) {
+        return ((long) userId << 8) | resource.ordinal();
+    }
+}
@@ -0,0 +1,127 @@
+package com.health.tracker.service;
+
+import java.util.Arrays;
+
+// One user's history as parallel primitive columns: epoch days, daily calories from
+// daily_activity_rollup and weight readings from health_metric. Rows are appended in date
+// order, which lets accumulate() place them into periods in a single forward pass.
+public class TrendSeries {
+
+    private int[] activityDays = new int[64];
+    // NaN marks a day with only meals or only exercises logged
+    private float[] consumed = new float[64];
+    private float[] burned = new float[64];
+    private int activitySize;
+
+    private int[] weightDays = new int[16];
+    private float[] weights = new float[16];
+    private int weightSize;
+
+    public void addActivity(int epochDay, float caloriesConsumed, float caloriesBurned) {
+        if (activitySize == activityDays.length) {
+            int capacity = activitySize * 2;
+            activityDays = Arrays.copyOf(activityDays, capacity);
+            consumed = Arrays.copyOf(consumed, capacity);
+            burned = Arrays.copyOf(burned, capacity);
+        }
+        activityDays[activitySize] = epochDay;
+        consumed[activitySize] = caloriesConsumed;
+        burned[activitySize] = caloriesBurned;
+        activitySize++;
+    }
+
+    public void addWeight(int epochDay, float weight) {
+        if (weightSize == weightDays.length) {
+            int capacity = weightSize * 2;
+            weightDays = Arrays.copyOf(weightDays, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        weightDays[weightSize] = epochDay;
+        weights[weightSize] = weight;
+        weightSize++;
+    }
+
+    // periodStarts holds the first epoch day of each period, ascending; days before the first
+    // period are skipped and days after the last one count towards it
+    public void accumulate(int[] periodStarts, Periods into) {
+        int period = 0;
+        for (int i = 0; i < activitySize; i++) {
+            int day = activityDays[i];
+            if (day < periodStarts[0]) {
+                continue;
+            }
+            while (period + 1 < periodStarts.length && day >= periodStarts[period + 1]) {
+                period++;
+            }
+            into.consumed[period].add(consumed[i]);
+            into.burned[period].add(burned[i]);
+        }
+        period = 0;
+        for (int i = 0; i < weightSize; i++) {
+            int day = weightDays[i];
+            if (day < periodStarts[0]) {
+                continue;
+            }
+            while (period + 1 < periodStarts.length && day >= periodStarts[period + 1]) {
+                period++;
+            }
+            into.weight[period].add(weights[i]);
+        }
+        if (activitySize > 0 || weightSize > 0) {
+            into.users++;
+        }
+    }
+
+    // Running totals per period. Instances are combined with merge() when several users are
+    // accumulated in parallel.
+    public static class Periods {
+        final Stat[] consumed;
+        final Stat[] burned;
+        final Stat[] weight;
+        int users;
+
+        public Periods(int count) {
+            consumed = new Stat[count];
+            burned = new Stat[count];
+            weight = new Stat[count];
+            for (int i = 0; i < count; i++) {
+                consumed[i] = new Stat();
+                burned[i] = new Stat();
+                weight[i] = new Stat();
+            }
+        }
+
+        public void merge(Periods other) {
+            for (int i = 0; i < consumed.length; i++) {
+                consumed[i].merge(other.consumed[i]);
+                burned[i].merge(other.burned[i]);
+                weight[i].merge(other.weight[i]);
+            }
+            users += other.users;
+        }
+    }
+
+    static class Stat {
+        int count;
+        double sum;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+
+        void add(float value) {
+            if (Float.isNaN(value)) {
+                return;
+            }
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        void merge(Stat other) {
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.health.tracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.health.tracker.dto.TrendPoint;
+import com.health.tracker.dto.TrendStats;
+import com.health.tracker.dto.Trends;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Weekly and monthly trends of calories and weight. Daily calories come from
+// daily_activity_rollup, so a user's history is one row per day rather than one per meal.
+// Results are cached and reused until ResourceVersions reports a write that affects them.
+@Service
+public class TrendService implements MeterBinder {
+
+    public enum Granularity {
+        WEEK, MONTH;
+
+        LocalDate align(LocalDate date) {
+            return this == WEEK
+                    ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                    : date.withDayOfMonth(1);
+        }
+
+        LocalDate plus(LocalDate date, long periods) {
+            return this == WEEK ? date.plusWeeks(periods) : date.plusMonths(periods);
+        }
+
+        public static Granularity parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Granularity must be week or month.");
+            }
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Value("${trends.default-periods:12}")
+    private int defaultPeriods;
+
+    @Value("${trends.max-range-days:1100}")
+    private int maxRangeDays;
+
+    @Value("${trends.moving-average-periods:4}")
+    private int movingAveragePeriods;
+
+    private final Cache<TrendKey, CachedTrends> cache;
+
+    public TrendService(@Value("${trends.cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "trends");
+    }
+
+    public Trends getTrends(int userId, String granularity, LocalDate from, LocalDate to) {
+        TrendKey key = key(userId, granularity, from, to);
+        // Read the version before the data, as the ETag does
+        String stamp = resourceVersions.etag(userId, ResourceVersions.Resource.MEALS,
+                ResourceVersions.Resource.EXERCISES, ResourceVersions.Resource.HEALTH_METRICS);
+        CachedTrends cached = cache.getIfPresent(key);
+        if (cached != null && cached.stamp.equals(stamp)) {
+            return cached.trends;
+        }
+
+        TrendSeries series = new TrendSeries();
+        jdbcTemplate.query("SELECT date, meal_count, calories_consumed, exercise_count, calories_burned " +
+                        "FROM daily_activity_rollup WHERE user_id = ? AND date BETWEEN ? AND ? ORDER BY date",
+                rs -> {
+                    series.addActivity((int) rs.getDate(1).toLocalDate().toEpochDay(),
+                            rs.getInt(2) > 0 ? rs.getFloat(3) : Float.NaN,
+                            rs.getInt(4) > 0 ? rs.getFloat(5) : Float.NaN);
+                }, userId, Date.valueOf(key.from), Date.valueOf(key.to));
+        jdbcTemplate.query("SELECT date, weight FROM health_metric " +
+                        "WHERE user_id = ? AND date BETWEEN ? AND ? ORDER BY date, metric_id",
+                rs -> {
+                    series.addWeight((int) rs.getDate(1).toLocalDate().toEpochDay(), rs.getFloat(2));
+                }, userId, Date.valueOf(key.from), Date.valueOf(key.to));
+
+        int[] starts = periodStarts(key);
+        TrendSeries.Periods periods = new TrendSeries.Periods(starts.length);
+        series.accumulate(starts, periods);
+
+        Trends trends = toTrends(key, starts, periods);
+        cache.put(key, new CachedTrends(stamp, trends));
+        return trends;
+    }
+
+    // Every user with data in the range, accumulated in parallel; the statistics are over all
+    // user-days (and weight readings) of the period, not averages of per-user averages
+    public Trends getCohortTrends(String granularity, LocalDate from, LocalDate to) {
+        TrendKey key = key(null, granularity, from, to);
+        String stamp = Long.toString(resourceVersions.changeCount());
+        CachedTrends cached = cache.getIfPresent(key);
+        if (cached != null && cached.stamp.equals(stamp)) {
+            return cached.trends;
+        }
+
+        Map<Integer, TrendSeries> users = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, date, meal_count, calories_consumed, exercise_count, calories_burned " +
+                        "FROM daily_activity_rollup WHERE date BETWEEN ? AND ? ORDER BY user_id, date",
+                rs -> {
+                    users.computeIfAbsent(rs.getInt(1), id -> new TrendSeries())
+                            .addActivity((int) rs.getDate(2).toLocalDate().toEpochDay(),
+                                    rs.getInt(3) > 0 ? rs.getFloat(4) : Float.NaN,
+                                    rs.getInt(5) > 0 ? rs.getFloat(6) : Float.NaN);
+                }, Date.valueOf(key.from), Date.valueOf(key.to));
+        jdbcTemplate.query("SELECT user_id, date, weight FROM health_metric " +
+                        "WHERE date BETWEEN ? AND ? ORDER BY user_id, date, metric_id",
+                rs -> {
+                    users.computeIfAbsent(rs.getInt(1), id -> new TrendSeries())
+                            .addWeight((int) rs.getDate(2).toLocalDate().toEpochDay(), rs.getFloat(3));
+                }, Date.valueOf(key.from), Date.valueOf(key.to));
+
+        int[] starts = periodStarts(key);
+        TrendSeries.Periods periods = users.values().parallelStream().collect(
+                () -> new TrendSeries.Periods(starts.length),
+                (into, series) -> series.accumulate(starts, into),
+                TrendSeries.Periods::merge);
+
+        Trends trends = toTrends(key, starts, periods);
+        cache.put(key, new CachedTrends(stamp, trends));
+        return trends;
+    }
+
+    // Defaults to the last defaultPeriods periods up to today; from is widened to a period start
+    private TrendKey key(Integer userId, String granularity, LocalDate from, LocalDate to) {
+        Granularity unit = Granularity.parse(granularity);
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = unit.align(from != null ? from : unit.plus(end, 1 - defaultPeriods));
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to.");
+        }
+        if (ChronoUnit.DAYS.between(start, end) > maxRangeDays) {
+            throw new IllegalArgumentException("Range exceeds the limit of " + maxRangeDays + " days.");
+        }
+        return new TrendKey(userId, unit, start, end);
+    }
+
+    private int[] periodStarts(TrendKey key) {
+        List<LocalDate> starts = new ArrayList<>();
+        for (LocalDate start = key.from; !start.isAfter(key.to); start = key.granularity.plus(start, 1)) {
+            starts.add(start);
+        }
+        return starts.stream().mapToInt(date -> (int) date.toEpochDay()).toArray();
+    }
+
+    private Trends toTrends(TrendKey key, int[] starts, TrendSeries.Periods periods) {
+        List<TrendPoint> points = new ArrayList<>(starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            points.add(new TrendPoint(LocalDate.ofEpochDay(starts[i]),
+                    stats(periods.consumed[i]), stats(periods.burned[i]), stats(periods.weight[i]),
+                    movingAverage(periods.consumed, i), movingAverage(periods.burned, i),
+                    movingAverage(periods.weight, i)));
+        }
+        return new Trends(key.granularity.name().toLowerCase(Locale.ROOT), key.from, key.to, periods.users, points);
+    }
+
+    private TrendStats stats(TrendSeries.Stat stat) {
+        if (stat.count == 0) {
+            return null;
+        }
+        return new TrendStats(stat.count, stat.sum, stat.sum / stat.count, stat.min, stat.max);
+    }
+
+    // Mean of the period averages in the trailing window, skipping periods without data
+    private Double movingAverage(TrendSeries.Stat[] stats, int index) {
+        double sum = 0;
+        int count = 0;
+        for (int i = Math.max(0, index - movingAveragePeriods + 1); i <= index; i++) {
+            if (stats[i].count > 0) {
+                sum += stats[i].sum / stats[i].count;
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : null;
+    }
+
+    // userId is null for the cohort
+    private record TrendKey(Integer userId, Granularity granularity, LocalDate from, LocalDate to) {
+    }
+
+    private record CachedTrends(String stamp, Trends trends) {
+    }
+}
@@ -1,14 +1,14 @@
 // UserService.java
 package com.health.tracker.service;
 
+import com.health.tracker.dto.LoadUserRole;
 import com.health.tracker.dto.UserProfileDTO;
+import com.health.tracker.dto.UserSummary;
 import com.health.tracker.entity.Users;
 import com.health.tracker.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 @Service
@@ -17,31 +17,61 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private ProfileCache profileCache;
+
+    @Autowired
+    private AccountIndex accountIndex;
+
+    @Autowired
+    private AggregateService aggregateService;
+
 //    public Users createUser(Users users) {
 //        return userRepository.save(users);
 //    }
 
-    public Map<String, String> getUserById(int userId) {
-        Optional<Users> userResults = userRepository.findById(userId);
-        Map<String, String> result = new HashMap<>();
-
-        if (userResults != null && !userResults.isEmpty()) {
-            Users user = userResults.get();
-            result.put("userId", String.valueOf(user.getId()));
-            result.put("name", user.getName());
-            result.put("email", user.getEmail());
-            result.put("contact", String.valueOf(user.getContact()));
-            result.put("age", String.valueOf(user.getAge()));
-            result.put("currentWeight", String.valueOf(user.getWeight()));
-            result.put("height", String.valueOf(user.getHeight()));
+    public Optional<UserSummary> getUserById(int userId) {
+        return userRepository.findSummaryById(userId);
+    }
+
+    // Creates a user, or replaces the one with the same id. The users row and its account index
+    // entries commit together, so a login taken by another account leaves neither behind.
+    @Transactional
+    public Users addUser(Users user) {
+        Optional<Users> existing = user.getId() == 0 ? Optional.empty() : userRepository.findById(user.getId());
+        int accountId = existing.map(Users::getId).orElse(0);
+        if (accountIndex.takenByOther(user.getEmail(), LoadUserRole.USER, accountId)) {
+            throw new IllegalArgumentException("This Email already exists.");
+        }
+        if (accountIndex.takenByOther(user.getContact(), LoadUserRole.USER, accountId)) {
+            throw new IllegalArgumentException("This Contact already exists.");
         }
 
-        return result;
+        Users saved = userRepository.save(user);
+        accountIndex.index(saved);
+        // A replace leaves the user's cached principal (under the old and the new logins) and
+        // profile stale
+        if (existing.isPresent()) {
+            principalCache.invalidate(existing.get().getEmail(), existing.get().getContact(),
+                    saved.getEmail(), saved.getContact());
+            profileCache.invalidate(saved.getId());
+        }
+        return saved;
     }
 
+    @Transactional
     public Users updateUser(int userId, Users usersDetails) {
         Users users = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        if (accountIndex.takenByOther(usersDetails.getEmail(), LoadUserRole.USER, userId)) {
+            throw new IllegalArgumentException("This Email already exists.");
+        }
+
+        // The cached principal may be keyed by the old email or by the contact
+        principalCache.invalidate(users.getEmail(), users.getContact(), usersDetails.getEmail());
 
         users.setName(usersDetails.getName());
         users.setEmail(usersDetails.getEmail());
@@ -49,48 +79,25 @@ public class UserService {
         users.setWeight(usersDetails.getWeight());
         users.setHeight(usersDetails.getHeight());
 
-        return userRepository.save(users);
+        Users saved = userRepository.save(users);
+        accountIndex.index(saved);
+        profileCache.invalidate(userId);
+        return saved;
     }
 
-    public Map<String, Object> getUserProfile(int userId) {
-        List<Object[]> profileResults = userRepository.getUserProfileView(userId);
-        Map<String, Object> result = new HashMap<>();
-
-        if (profileResults != null && !profileResults.isEmpty()) {
-            Object[] profile = profileResults.get(0);
-            UserProfileDTO dto = new UserProfileDTO(profile);
-
-            result.put("userId", dto.getUserId());
-            result.put("name", dto.getName());
-            result.put("email", dto.getEmail());
-            result.put("age", dto.getAge());
-            result.put("currentWeight", dto.getCurrentWeight());
-            result.put("height", dto.getHeight());
-            result.put("lastBMIRecorded", dto.getLastBMIRecorded() != null ? dto.getLastBMIRecorded() : "Not recorded");
-            result.put("bmiCategory", dto.getBmiCategory() != null ? dto.getBmiCategory() : "Not calculated");
-        } else {
-            // Fallback to basic user data
-            Users users = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            result.put("userId", users.getId());
-            result.put("name", users.getName());
-            result.put("email", users.getEmail());
-            result.put("age", users.getAge());
-            result.put("currentWeight", users.getWeight());
-            result.put("height", users.getHeight());
-            result.put("lastBMIRecorded", "Not recorded");
-            result.put("bmiCategory", "Not calculated");
+    public UserProfileDTO getUserProfile(int userId) {
+        UserProfileDTO profile = profileCache.get(userId);
+        if (profile == null) {
+            throw new RuntimeException("User not found");
         }
-
-        return result;
+        return profile;
     }
 
     public Double calculateBMI(int userId) {
-        return userRepository.calculateUserBMI(userId);
+        return aggregateService.bmi(userId);
     }
 
     public String getCalorieSummary(int userId) {
-        return userRepository.getUserCalorieSummary(userId);
+        return aggregateService.calorieSummary(userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.health.tracker.service.writebehind;
+
+import com.health.tracker.entity.Exercise;
+import com.health.tracker.entity.Meal;
+import com.health.tracker.service.BatchIngestService;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+// One buffered meal or exercise, as stored in the write-ahead log
+class WalEntry {
+
+    enum Type {
+        MEAL,
+        EXERCISE
+    }
+
+    // Longer names are not buffered: BatchIngestService would reject them after the
+    // acknowledgement, so the synchronous path reports the error instead.
+    static final int MAX_NAME_LENGTH = BatchIngestService.MAX_NAME_LENGTH;
+
+    // Encoded size of the longest name, at up to 4 UTF-8 bytes per character
+    static final int MAX_NAME_BYTES = 4 * MAX_NAME_LENGTH;
+
+    private long seq;
+    private final Type type;
+    private final int userId;
+    private final String name;
+    private final int durationMinutes;
+    private final float calories;
+    private final LocalDate date;
+
+    private WalEntry(Type type, int userId, String name, int durationMinutes, float calories, LocalDate date) {
+        this.type = type;
+        this.userId = userId;
+        this.name = name;
+        this.durationMinutes = durationMinutes;
+        this.calories = calories;
+        this.date = date;
+    }
+
+    static WalEntry of(Meal meal) {
+        return new WalEntry(Type.MEAL, meal.getUserId(), meal.getMealName(), 0,
+                meal.getCaloriesConsumed(), meal.getDate());
+    }
+
+    static WalEntry of(Exercise exercise) {
+        return new WalEntry(Type.EXERCISE, exercise.getUserId(), exercise.getExerciseName(),
+                exercise.getDurationMinutes(), exercise.getCaloriesBurned(), exercise.getDate());
+    }
+
+    // Fresh instances, so callers can hand them out or mutate them
+    Meal toMeal() {
+        Meal meal = new Meal();
+        meal.setUserId(userId);
+        meal.setMealName(name);
+        meal.setCaloriesConsumed(calories);
+        meal.setDate(date);
+        return meal;
+    }
+
+    Exercise toExercise() {
+        Exercise exercise = new Exercise();
+        exercise.setUserId(userId);
+        exercise.setExerciseName(name);
+        exercise.setDurationMinutes(durationMinutes);
+        exercise.setCaloriesBurned(calories);
+        exercise.setDate(date);
+        return exercise;
+    }
+
+    // Entries BatchIngestService would reject are not buffered: after the acknowledgement there
+    // is nobody left to report the error to
+    boolean isBufferable() {
+        return name != null && !name.isBlank() && calories >= 0 && durationMinutes >= 0
+                && name.codePointCount(0, name.length()) <= MAX_NAME_LENGTH;
+    }
+
+    // seq, type, user, date, calories, duration, then the UTF-8 name with its length (-1 for null)
+    void encode(ByteBuffer out) {
+        out.putLong(seq);
+        out.put((byte) type.ordinal());
+        out.putInt(userId);
+        out.putLong(date.toEpochDay());
+        out.putFloat(calories);
+        out.putInt(durationMinutes);
+        if (name == null) {
+            out.putShort((short) -1);
+        } else {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            out.putShort((short) bytes.length);
+            out.put(bytes);
+        }
+    }
+
+    static WalEntry decode(ByteBuffer in) {
+        long seq = in.getLong();
+        Type type = Type.values()[in.get()];
+        int userId = in.getInt();
+        LocalDate date = LocalDate.ofEpochDay(in.getLong());
+        float calories = in.getFloat();
+        int durationMinutes = in.getInt();
+        short length = in.getShort();
+        String name = null;
+        if (length >= 0) {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        WalEntry entry = new WalEntry(type, userId, name, durationMinutes, calories, date);
+        entry.seq = seq;
+        return entry;
+    }
+
+    long getSeq() {
+        return seq;
+    }
+
+    void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    int getUserId() {
+        return userId;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    float getCalories() {
+        return calories;
+    }
+
+    LocalDate getDate() {
+        return date;
+    }
+}
@@ -0,0 +1,228 @@
+package com.health.tracker.service.writebehind;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only log of buffered writes, in memory-mapped segment files named after their first
+// sequence number. Each record is its body length, a CRC32 of the body and the body; a zero
+// length ends a segment, and a bad checksum marks a record torn by a crash, which was never
+// acknowledged. Segments are only appended to by the run that created them; after a restart
+// new records go to a new segment, and old ones are deleted once everything in them is flushed.
+class WriteAheadLog implements Closeable {
+
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".seg";
+    private static final String ID_FILE = "wal-id";
+    private static final String DEAD_LETTER_FILE = "dead-letter.log";
+    private static final int HEADER_BYTES = 8;
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final boolean fsync;
+
+    // Oldest first; the last one is the segment being appended to, if any
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final ByteBuffer body;
+    private final CRC32 crc = new CRC32();
+
+    private String id;
+    private Segment active;
+    private long nextSeq = 1;
+
+    WriteAheadLog(Path dir, int segmentBytes, boolean fsync) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.body = ByteBuffer.allocate(64 + WalEntry.MAX_NAME_BYTES);
+    }
+
+    // Identifies this log's checkpoint row; created with the directory and kept across restarts
+    synchronized String open() throws IOException {
+        Files.createDirectories(dir);
+        Path idFile = dir.resolve(ID_FILE);
+        if (!Files.exists(idFile)) {
+            Path tmp = dir.resolve(ID_FILE + ".tmp");
+            Files.writeString(tmp, UUID.randomUUID().toString());
+            Files.move(tmp, idFile);
+        }
+        id = Files.readString(idFile).trim();
+        return id;
+    }
+
+    // Entries after flushedSeq, in order. Sequence numbers continue after both the log and the
+    // checkpoint, so an entry appended after an emptied log is never mistaken for a flushed one.
+    synchronized List<WalEntry> recover(long flushedSeq) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(WriteAheadLog::isSegment).sorted().toList();
+        }
+
+        List<WalEntry> unflushed = new ArrayList<>();
+        long lastSeq = 0;
+        for (Path file : files) {
+            Segment segment = new Segment(file, firstSeq(file));
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                WalEntry entry;
+                while ((entry = read(buffer, lastSeq)) != null) {
+                    lastSeq = entry.getSeq();
+                    segment.lastSeq = lastSeq;
+                    if (lastSeq > flushedSeq) {
+                        unflushed.add(entry);
+                    }
+                }
+            }
+            segments.add(segment);
+        }
+        nextSeq = Math.max(lastSeq, flushedSeq) + 1;
+        release(flushedSeq);
+        return unflushed;
+    }
+
+    // Returns once the record is in the mapped file and, with fsync, on disk
+    synchronized long append(WalEntry entry) throws IOException {
+        entry.setSeq(nextSeq);
+        body.clear();
+        entry.encode(body);
+        body.flip();
+        int length = body.remaining();
+
+        if (active == null || active.buffer.remaining() < HEADER_BYTES + length) {
+            roll(entry.getSeq());
+        }
+        MappedByteBuffer buffer = active.buffer;
+        int start = buffer.position();
+        crc.reset();
+        crc.update(body.duplicate());
+        buffer.putInt(length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(body);
+        if (fsync) {
+            buffer.force(start, HEADER_BYTES + length);
+        }
+        active.lastSeq = entry.getSeq();
+        return nextSeq++;
+    }
+
+    // Deletes segments whose entries are all committed, except the one being appended to
+    synchronized void release(long flushedSeq) {
+        while (!segments.isEmpty() && segments.peekFirst() != active && segments.peekFirst().lastSeq <= flushedSeq) {
+            Segment segment = segments.pollFirst();
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                // Harmless: recovery skips its entries by the checkpoint; retried on the next start
+                segments.addFirst(segment);
+                return;
+            }
+        }
+    }
+
+    // Keeps an entry the database refused, one tab-separated line per entry, so it can be
+    // inspected and re-entered by hand once it is no longer replayed
+    synchronized void deadLetter(WalEntry entry, String reason) throws IOException {
+        String line = String.join("\t", Long.toString(entry.getSeq()), entry.getType().name(),
+                Integer.toString(entry.getUserId()), entry.getDate().toString(),
+                Float.toString(entry.getCalories()), Integer.toString(entry.getDurationMinutes()),
+                escape(entry.getName()), escape(reason)) + "\n";
+        try (FileChannel channel = FileChannel.open(dir.resolve(DEAD_LETTER_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)));
+            if (fsync) {
+                channel.force(false);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (active != null) {
+            active.buffer.force();
+            active.channel.close();
+            active = null;
+        }
+    }
+
+    private void roll(long firstSeq) throws IOException {
+        if (active != null) {
+            active.buffer.force();
+            active.channel.close();
+        }
+        Path path = dir.resolve(String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX));
+        Segment segment = new Segment(path, firstSeq);
+        segment.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment.buffer = segment.channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        segments.add(segment);
+        active = segment;
+    }
+
+    // Next intact record, or null at the end of the segment or at a torn record
+    private WalEntry read(ByteBuffer buffer, long previousSeq) {
+        if (buffer.remaining() < HEADER_BYTES) {
+            return null;
+        }
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining()) {
+            return null;
+        }
+        ByteBuffer record = buffer.slice(buffer.position(), length);
+        crc.reset();
+        crc.update(record.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        WalEntry entry;
+        try {
+            entry = WalEntry.decode(record);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        if (entry.getSeq() <= previousSeq) {
+            return null;
+        }
+        buffer.position(buffer.position() + length);
+        return entry;
+    }
+
+    private static String escape(String value) {
+        return value == null ? "" : value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static long firstSeq(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static class Segment {
+        private final Path path;
+        private long lastSeq;
+        private FileChannel channel;
+        private MappedByteBuffer buffer;
+
+        private Segment(Path path, long firstSeq) {
+            this.path = path;
+            this.lastSeq = firstSeq - 1;
+        }
+    }
+}
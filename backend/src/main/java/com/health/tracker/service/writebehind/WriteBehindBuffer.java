@@ -0,0 +1,360 @@
+package com.health.tracker.service.writebehind;
+
+import com.health.tracker.entity.Exercise;
+import com.health.tracker.entity.Meal;
+import com.health.tracker.service.ProfileCache;
+import com.health.tracker.service.ResourceVersions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Optional write-behind for single meal and exercise logs (writebehind.enabled). A log is
+// acknowledged once it is in the local write-ahead log; a flusher thread then commits buffered
+// entries to the database in batches, one transaction each. On startup, entries the
+// checkpoint does not cover are replayed. Reads of a user's history and daily totals merge in
+// that user's buffered entries, so a client sees its own writes before they are flushed.
+@Service
+public class WriteBehindBuffer implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindBuffer.class);
+
+    private static final long MAX_BACKOFF_MS = 5000;
+
+    @Autowired
+    private WriteBehindCommitter committer;
+
+    @Autowired
+    private ProfileCache profileCache;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final boolean enabled;
+    private final WriteAheadLog wal;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxPending;
+
+    // Logged but not yet committed, in sequence order; guarded by this
+    private final ArrayDeque<WalEntry> pending = new ArrayDeque<>();
+
+    private TransactionTemplate readTransaction;
+    private String walId;
+    private volatile boolean running;
+    private Thread flusher;
+    private volatile Timer commitTimer;
+    private volatile Counter deadLettered;
+
+    public WriteBehindBuffer(@Value("${writebehind.enabled:false}") boolean enabled,
+                             @Value("${writebehind.dir:data/write-behind}") String dir,
+                             @Value("${writebehind.segment-bytes:8388608}") int segmentBytes,
+                             @Value("${writebehind.fsync:true}") boolean fsync,
+                             @Value("${writebehind.batch-size:500}") int batchSize,
+                             @Value("${writebehind.flush-interval-ms:50}") long flushIntervalMs,
+                             @Value("${writebehind.max-pending:20000}") int maxPending) {
+        this.enabled = enabled;
+        this.wal = new WriteAheadLog(Path.of(dir), Math.max(segmentBytes, 64 * 1024), fsync);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxPending = maxPending;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        // Repeatable read: the checkpoint and the caller's query see one snapshot, see read()
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        walId = wal.open();
+        List<WalEntry> recovered = wal.recover(committer.flushedSeq(walId));
+        synchronized (this) {
+            pending.addAll(recovered);
+        }
+        if (!recovered.isEmpty()) {
+            log.info("Replaying {} buffered writes from the write-ahead log", recovered.size());
+        }
+        running = true;
+        flusher = new Thread(this::run, "write-behind-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // Drains what it can; anything left stays in the log for the next start
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        synchronized (this) {
+            notifyAll();
+        }
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        wal.close();
+    }
+
+    // False when the meal was not buffered (disabled, full, or not a valid entry); the caller
+    // then saves it synchronously, which also reports any error. Meals with an id are left to
+    // that path too: for an existing row save() is an update, not another insert.
+    public boolean offer(Meal meal) {
+        if (meal.getMealId() != 0) {
+            return false;
+        }
+        if (meal.getDate() == null) {
+            meal.setDate(LocalDate.now());
+        }
+        return offer(WalEntry.of(meal), ResourceVersions.Resource.MEALS);
+    }
+
+    public boolean offer(Exercise exercise) {
+        if (exercise.getExerciseId() != 0) {
+            return false;
+        }
+        if (exercise.getDate() == null) {
+            exercise.setDate(LocalDate.now());
+        }
+        return offer(WalEntry.of(exercise), ResourceVersions.Resource.EXERCISES);
+    }
+
+    // Runs a read of one user's rows that merges in the user's buffered entries. Nothing is
+    // locked against the flusher; entries are deduplicated by sequence instead. The user's
+    // entries are copied first, then the checkpoint is read in the same transaction as the
+    // query, so both see one snapshot: entries at or below the checkpoint are in that snapshot
+    // and dropped, later ones are not and merged. An entry committed after the copy is then
+    // counted once, from whichever side the snapshot has it.
+    public <T> T read(int userId, Function<Pending, T> query) {
+        List<WalEntry> buffered = enabled ? pendingOf(userId) : List.of();
+        if (buffered.isEmpty()) {
+            return query.apply(Pending.NONE);
+        }
+        return readTransaction.execute(status -> {
+            long flushedSeq = committer.flushedSeq(walId);
+            return query.apply(new Pending(buffered.stream().filter(entry -> entry.getSeq() > flushedSeq).toList()));
+        });
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("writebehind.pending", this, WriteBehindBuffer::pendingCount)
+                .register(registry);
+        commitTimer = Timer.builder("writebehind.commit")
+                .publishPercentileHistogram()
+                .register(registry);
+        deadLettered = Counter.builder("writebehind.dead-lettered")
+                .register(registry);
+    }
+
+    private boolean offer(WalEntry entry, ResourceVersions.Resource resource) {
+        if (!running || !entry.isBufferable() || profileCache.get(entry.getUserId()) == null) {
+            return false;
+        }
+        synchronized (this) {
+            if (pending.size() >= maxPending) {
+                return false;
+            }
+            try {
+                wal.append(entry);
+            } catch (IOException e) {
+                log.error("Write-ahead log append failed, saving synchronously: {}", e.getMessage());
+                return false;
+            }
+            pending.addLast(entry);
+            if (pending.size() >= batchSize) {
+                notifyAll();
+            }
+        }
+        resourceVersions.bump(entry.getUserId(), resource);
+        return true;
+    }
+
+    private synchronized List<WalEntry> pendingOf(int userId) {
+        List<WalEntry> matches = new ArrayList<>();
+        for (WalEntry entry : pending) {
+            if (entry.getUserId() == userId) {
+                matches.add(entry);
+            }
+        }
+        return matches;
+    }
+
+    private void run() {
+        long backoffMs = flushIntervalMs;
+        while (true) {
+            List<WalEntry> batch;
+            synchronized (this) {
+                if (running && pending.size() < batchSize) {
+                    try {
+                        wait(flushIntervalMs);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+                batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+                Iterator<WalEntry> entries = pending.iterator();
+                while (entries.hasNext() && batch.size() < batchSize) {
+                    batch.add(entries.next());
+                }
+            }
+            try {
+                flush(batch);
+                backoffMs = flushIntervalMs;
+            } catch (Exception e) {
+                log.warn("Write-behind flush of {} entries failed, retrying: {}", batch.size(), e.getMessage());
+                if (!running) {
+                    return;
+                }
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    // A batch fails as a whole when one of its entries cannot be inserted (a user deleted since
+    // it was logged, say). Its entries are then committed one by one, so only the bad ones are
+    // set aside, in the dead-letter file, and the log moves past them instead of retrying the
+    // same batch forever. Failures that are not about the data, like a lost connection, are
+    // thrown and the batch is retried after a backoff.
+    private void flush(List<WalEntry> batch) throws IOException {
+        try {
+            commit(batch, false);
+        } catch (RuntimeException e) {
+            if (!isPermanent(e)) {
+                throw e;
+            }
+            log.warn("Write-behind batch of {} entries failed, committing them one by one: {}",
+                    batch.size(), e.getMessage());
+            for (WalEntry entry : batch) {
+                try {
+                    commit(List.of(entry), false);
+                } catch (RuntimeException entryError) {
+                    if (!isPermanent(entryError)) {
+                        throw entryError;
+                    }
+                    // A crash before the checkpoint moves only writes this entry twice
+                    wal.deadLetter(entry, entryError.getMessage());
+                    commit(List.of(entry), true);
+                    log.error("Buffered {} {} of user {} moved to the dead-letter file: {}", entry.getType(),
+                            entry.getSeq(), entry.getUserId(), entryError.getMessage());
+                    Counter counter = deadLettered;
+                    if (counter != null) {
+                        counter.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    // Commits the entries, which are at the head of pending, and removes them from it. Skipped
+    // entries only move the checkpoint past them.
+    private void commit(List<WalEntry> entries, boolean skip) {
+        List<Meal> meals = new ArrayList<>();
+        List<Exercise> exercises = new ArrayList<>();
+        if (!skip) {
+            for (WalEntry entry : entries) {
+                if (entry.getType() == WalEntry.Type.MEAL) {
+                    meals.add(entry.toMeal());
+                } else {
+                    exercises.add(entry.toExercise());
+                }
+            }
+        }
+        long lastSeq = entries.get(entries.size() - 1).getSeq();
+
+        long start = System.nanoTime();
+        committer.commit(walId, meals, exercises, lastSeq);
+        synchronized (this) {
+            for (int i = 0; i < entries.size(); i++) {
+                pending.pollFirst();
+            }
+        }
+        Timer timer = commitTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        wal.release(lastSeq);
+    }
+
+    // Errors the same entries would hit again: constraint violations, values the column cannot
+    // hold. Resource failures are not, and neither are transient ones like deadlocks or timeouts.
+    private static boolean isPermanent(RuntimeException e) {
+        return e instanceof NonTransientDataAccessException
+                && !(e instanceof DataAccessResourceFailureException)
+                && !(e instanceof NonTransientDataAccessResourceException);
+    }
+
+    // One user's buffered entries a read merges in
+    public static final class Pending {
+
+        static final Pending NONE = new Pending(List.of());
+
+        private final List<WalEntry> entries;
+
+        private Pending(List<WalEntry> entries) {
+            this.entries = entries;
+        }
+
+        // For one day, or all days when date is null
+        public List<Meal> meals(LocalDate date) {
+            return select(WalEntry.Type.MEAL, date, WalEntry::toMeal);
+        }
+
+        public List<Exercise> exercises(LocalDate date) {
+            return select(WalEntry.Type.EXERCISE, date, WalEntry::toExercise);
+        }
+
+        private <T> List<T> select(WalEntry.Type type, LocalDate date, Function<WalEntry, T> mapper) {
+            List<T> matches = new ArrayList<>();
+            for (WalEntry entry : entries) {
+                if (entry.getType() == type && (date == null || date.equals(entry.getDate()))) {
+                    matches.add(mapper.apply(entry));
+                }
+            }
+            return matches;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.health.tracker.service.writebehind;
+
+import com.health.tracker.dto.BatchItemError;
+import com.health.tracker.dto.BatchResult;
+import com.health.tracker.entity.Exercise;
+import com.health.tracker.entity.Meal;
+import com.health.tracker.service.BatchIngestService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Group commit for WriteBehindBuffer: one transaction per drained batch, holding the rows, their
+// rollups and activity events (through BatchIngestService) and the log's new checkpoint
+@Service
+public class WriteBehindCommitter {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindCommitter.class);
+
+    @Autowired
+    private BatchIngestService batchIngestService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public long flushedSeq(String walId) {
+        List<Long> rows = jdbcTemplate.queryForList(
+                "SELECT flushed_seq FROM write_behind_checkpoint WHERE wal_id = ?", Long.class, walId);
+        return rows.isEmpty() ? 0 : rows.get(0);
+    }
+
+    @Transactional
+    public void commit(String walId, List<Meal> meals, List<Exercise> exercises, long lastSeq) {
+        if (!meals.isEmpty()) {
+            logRejected("meal", batchIngestService.ingestMeals(meals));
+        }
+        if (!exercises.isEmpty()) {
+            logRejected("exercise", batchIngestService.ingestExercises(exercises));
+        }
+        jdbcTemplate.update("INSERT INTO write_behind_checkpoint (wal_id, flushed_seq) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE flushed_seq = VALUES(flushed_seq)", walId, lastSeq);
+    }
+
+    // Entries were checked when buffered; a rejection here means the user was deleted since
+    private void logRejected(String kind, BatchResult result) {
+        for (BatchItemError error : result.getErrors()) {
+            log.warn("Dropped buffered {} {}: {}", kind, error.getIndex(), error.getMessage());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+-- Reporting views. Flyway re-runs this script only when its checksum changes, so edit the
+-- definitions here rather than adding a versioned migration.
+
+-- User Profile View: Shows user details with latest BMI
+CREATE OR REPLACE VIEW user_profile_view AS
+SELECT
+    u.user_id,
+    u.name,
+    u.email,
+    u.age,
+    u.weight as current_weight,
+    u.height,
+    hm.BMI as last_bmi_recorded,
+    CASE
+        WHEN hm.BMI < 18.5 THEN 'Underweight'
+        WHEN hm.BMI < 25 THEN 'Normal'
+        WHEN hm.BMI < 30 THEN 'Overweight'
+        ELSE 'Obese'
+        END as bmi_category
+FROM users u
+         LEFT JOIN health_metric hm ON u.user_id = hm.user_id
+    AND hm.date = (SELECT MAX(date) FROM health_metric WHERE user_id = u.user_id);
+
+-- Daily Exercise Summary View: Aggregates exercise data
+CREATE OR REPLACE VIEW daily_exercise_summary AS
+SELECT
+    user_id,
+    date as exercise_date,
+    COUNT(*) as total_exercises,
+    SUM(duration_minutes) as total_duration,
+    SUM(calories_burned) as total_calories_burned
+FROM exercise
+GROUP BY user_id, date;
+
+-- Daily Calorie Intake View: Aggregates meal data
+CREATE OR REPLACE VIEW daily_calorie_intake AS
+SELECT
+    user_id,
+    date as meal_date,
+    COUNT(*) as total_meals,
+    SUM(calories_consumed) as total_calories_consumed,
+    AVG(calories_consumed) as avg_calories_per_meal
+FROM meal
+GROUP BY user_id, date;
+
+-- Health Progress View: Shows weight and BMI trends with changes.
+-- bmi_category, previous_weight and weight_change are stored on health_metric at write time.
+CREATE OR REPLACE VIEW health_progress_view AS
+SELECT
+    user_id,
+    date,
+    weight,
+    BMI,
+    bmi_category,
+    previous_weight,
+    weight_change
+FROM health_metric;
+
+-- Calories Consumed and Burned View: its INNER JOIN multiplied rows and dropped days with only
+-- meals or only exercise. CalorieTimelineService merges the per-day totals instead.
+DROP VIEW IF EXISTS calories_consumed_burned_view;
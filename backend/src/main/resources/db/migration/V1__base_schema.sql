@@ -0,0 +1,113 @@
+-- Tables as mapped by the entities when schema migrations were introduced. Databases
+-- already created by hibernate.ddl-auto=update keep their tables; IF NOT EXISTS makes
+-- this a no-op there, and Flyway records it as applied either way.
+
+CREATE TABLE IF NOT EXISTS account_login (
+    login varchar(191) not null,
+    account_id integer not null,
+    active bit not null,
+    contact varchar(255),
+    email varchar(255),
+    password varchar(255),
+    role enum ('ADMIN','USER') not null,
+    primary key (login)
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS admin (
+    admin_id integer not null auto_increment,
+    active bit,
+    address varchar(255),
+    contact varchar(255),
+    email varchar(255),
+    name varchar(255),
+    nic varchar(255),
+    password varchar(255),
+    refresh_token varchar(255),
+    role enum ('ADMIN'),
+    primary key (admin_id)
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS daily_activity_rollup (
+    date date not null,
+    user_id integer not null,
+    calories_burned float(53) not null,
+    calories_consumed float(53) not null,
+    duration_minutes bigint not null,
+    exercise_count integer not null,
+    meal_count integer not null,
+    primary key (date, user_id)
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS exercise (
+    exercise_id integer not null auto_increment,
+    calories_burned float(23) not null,
+    date date,
+    duration_minutes integer not null,
+    exercise_name varchar(255),
+    user_id integer not null,
+    primary key (exercise_id)
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS health_metric (
+    metric_id integer not null auto_increment,
+    bmi float(23) not null,
+    bmi_category varchar(255),
+    date date,
+    previous_weight float(23),
+    user_id integer not null,
+    weight float(23) not null,
+    weight_change float(23),
+    primary key (metric_id)
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS meal (
+    meal_id integer not null auto_increment,
+    calories_consumed float(23) not null,
+    date date,
+    meal_name varchar(255),
+    user_id integer not null,
+    primary key (meal_id)
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS user_alert_settings (
+    user_id integer not null,
+    daily_calorie_limit float(23),
+    primary key (user_id)
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS user_alerts (
+    alert_id integer not null auto_increment,
+    alert_date datetime(6),
+    is_read bit,
+    message varchar(255),
+    user_id integer not null,
+    primary key (alert_id)
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS user_profile_snapshot (
+    user_id integer not null,
+    age integer,
+    bmi_category varchar(255),
+    current_weight float(23),
+    email varchar(255),
+    height float(23),
+    last_bmi_recorded float(23),
+    name varchar(255),
+    refreshed_at datetime(6),
+    primary key (user_id)
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id integer not null auto_increment,
+    active bit,
+    age integer not null,
+    contact varchar(255),
+    email varchar(255),
+    height float(23) not null,
+    name varchar(255),
+    password varchar(255),
+    refresh_token varchar(255),
+    role enum ('USER'),
+    weight float(23) not null,
+    primary key (user_id)
+) engine=InnoDB;
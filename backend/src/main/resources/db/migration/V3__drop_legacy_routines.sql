@@ -0,0 +1,9 @@
+-- Procedures, the function and triggers created by earlier versions at every startup.
+-- Their work moved into the application: AggregateService (BMI and calorie totals),
+-- HealthMetricService (BMI on insert) and AlertRuleEngine (daily calorie limit).
+DROP PROCEDURE IF EXISTS CalculateUserBMI;
+DROP PROCEDURE IF EXISTS GetTotalCaloriesBurned;
+DROP PROCEDURE IF EXISTS GetTotalCaloriesConsumed;
+DROP FUNCTION IF EXISTS get_user_calorie_summary;
+DROP TRIGGER IF EXISTS before_health_metric_insert;
+DROP TRIGGER IF EXISTS after_meal_insert;
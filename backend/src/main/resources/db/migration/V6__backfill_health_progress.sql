@@ -0,0 +1,10 @@
+-- Progress deltas and BMI category for readings written before they were stored on
+-- health_metric. New readings get them from HealthMetricService at write time.
+UPDATE health_metric h JOIN (
+    SELECT metric_id, LAG(weight) OVER (PARTITION BY user_id ORDER BY date, metric_id) AS previous_weight
+    FROM health_metric) p ON p.metric_id = h.metric_id
+SET h.previous_weight = p.previous_weight,
+    h.weight_change = h.weight - p.previous_weight,
+    h.bmi_category = CASE WHEN h.BMI < 18.5 THEN 'Underweight' WHEN h.BMI < 25 THEN 'Normal'
+        WHEN h.BMI < 30 THEN 'Overweight' ELSE 'Obese' END
+WHERE h.bmi_category IS NULL;
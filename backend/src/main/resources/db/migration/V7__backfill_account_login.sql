@@ -0,0 +1,10 @@
+-- Index every existing email and contact for AccountIndex. Logins are normalized as in
+-- AccountIndex.normalize; on a duplicate identifier the first row wins.
+INSERT IGNORE INTO account_login (login, role, account_id, email, contact, password, active)
+SELECT LOWER(TRIM(login)), role, account_id, email, contact, password, active FROM (
+    SELECT email AS login, 'USER' AS role, user_id AS account_id, email, contact, password, COALESCE(active, TRUE) AS active FROM users
+    UNION ALL SELECT contact, 'USER', user_id, email, contact, password, COALESCE(active, TRUE) FROM users
+    UNION ALL SELECT email, 'ADMIN', admin_id, email, contact, password, COALESCE(active, TRUE) FROM admin
+    UNION ALL SELECT contact, 'ADMIN', admin_id, email, contact, password, COALESCE(active, TRUE) FROM admin
+) accounts
+WHERE login IS NOT NULL AND TRIM(login) <> '';
@@ -0,0 +1,7 @@
+-- Highest write-ahead log sequence committed per log directory. WriteBehindCommitter moves it
+-- in the same transaction as the rows, so a replay after a crash never inserts a row twice.
+CREATE TABLE IF NOT EXISTS write_behind_checkpoint (
+    wal_id varchar(64) not null,
+    flushed_seq bigint not null,
+    primary key (wal_id)
+) engine=InnoDB;
@@ -0,0 +1,2 @@
+-- Alert lists (AlertController) and the per-user deletes of AlertPurge look alerts up by user
+CREATE INDEX idx_alerts_user_date ON user_alerts (user_id, alert_date);
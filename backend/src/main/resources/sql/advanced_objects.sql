@@ -1,6 +1,6 @@
 -- =============================================
 -- Health & Fitness Tracker - Advanced Database Objects
--- Created by DatabaseInitializer.java
+-- Reference copy: the schema is applied by the Flyway migrations in db/migration
 -- =============================================
 
 -- =============================================
@@ -66,21 +66,17 @@ SELECT
 FROM meal
 GROUP BY user_id, date;
 
--- Health Progress View: Shows weight and BMI trends with changes
+-- Health Progress View: Shows weight and BMI trends with changes.
+-- bmi_category, previous_weight and weight_change are stored on health_metric at write time.
 CREATE OR REPLACE VIEW health_progress_view AS
 SELECT
     user_id,
     date,
     weight,
     BMI,
-    CASE
-    WHEN BMI < 18.5 THEN 'Underweight'
-    WHEN BMI BETWEEN 18.5 AND 24.9 THEN 'Normal'
-    WHEN BMI BETWEEN 25 AND 29.9 THEN 'Overweight'
-    ELSE 'Obese'
-END as bmi_category,
-    LAG(weight) OVER (PARTITION BY user_id ORDER BY date) as previous_weight,
-    weight - LAG(weight) OVER (PARTITION BY user_id ORDER BY date) as weight_change
+    bmi_category,
+    previous_weight,
+    weight_change
 FROM health_metric;
 
 -- Calories Consumed and Burned View: Joins meal and exercise data
@@ -94,85 +90,24 @@ FROM meal m
          INNER JOIN exercise e ON m.user_id = e.user_id;
 
 -- =============================================
--- 3. STORED PROCEDURES (For Business Logic)
+-- 3. STORED PROCEDURES AND FUNCTIONS (Removed)
 -- =============================================
 
--- Drop existing procedures first
+-- CalculateUserBMI, GetTotalCaloriesBurned, GetTotalCaloriesConsumed and
+-- get_user_calorie_summary are gone: AggregateService runs plain prepared SELECTs
+-- over the covering indexes below, which the driver can cache, and computes the
+-- BMI and the summary text in the application.
 DROP PROCEDURE IF EXISTS CalculateUserBMI;
 DROP PROCEDURE IF EXISTS GetTotalCaloriesBurned;
 DROP PROCEDURE IF EXISTS GetTotalCaloriesConsumed;
 DROP FUNCTION IF EXISTS get_user_calorie_summary;
 
--- Procedure: Calculate User BMI
-DELIMITER //
-CREATE PROCEDURE CalculateUserBMI(IN p_user_id INT)
-BEGIN
-    DECLARE user_weight FLOAT;
-    DECLARE user_height FLOAT;
-
-SELECT weight, height INTO user_weight, user_height
-FROM users WHERE user_id = p_user_id;
-
-IF user_weight IS NOT NULL AND user_height IS NOT NULL THEN
-SELECT user_weight / (user_height * user_height) as bmi;
-ELSE
-SELECT NULL as bmi;
-END IF;
-END //
-
--- Procedure: Get Total Calories Burned for a user on specific date
-CREATE PROCEDURE GetTotalCaloriesBurned(IN p_user_id INT, IN p_date DATE)
-BEGIN
-SELECT COALESCE(SUM(calories_burned), 0) as total_calories_burned
-FROM exercise
-WHERE user_id = p_user_id AND date = p_date;
-END //
-
--- Procedure: Get Total Calories Consumed for a user on specific date
-CREATE PROCEDURE GetTotalCaloriesConsumed(IN p_user_id INT, IN p_date DATE)
-BEGIN
-SELECT COALESCE(SUM(calories_consumed), 0) as total_calories_consumed
-FROM meal
-WHERE user_id = p_user_id AND date = p_date;
-END //
-
 -- =============================================
--- 4. USER DEFINED FUNCTIONS (For Calculations)
+-- 4. COVERING INDEXES (For Daily Calorie Totals)
 -- =============================================
 
--- Function: Get User Calorie Summary for current day
-CREATE FUNCTION get_user_calorie_summary(p_user_id INT)
-    RETURNS VARCHAR(255)
-    READS SQL DATA
-    DETERMINISTIC
-BEGIN
-    DECLARE total_consumed FLOAT;
-    DECLARE total_burned FLOAT;
-    DECLARE net_calories FLOAT;
-    DECLARE summary VARCHAR(255);
-
-SELECT COALESCE(SUM(calories_consumed), 0) INTO total_consumed
-FROM meal
-WHERE user_id = p_user_id AND date = CURDATE();
-
-SELECT COALESCE(SUM(calories_burned), 0) INTO total_burned
-FROM exercise
-WHERE user_id = p_user_id AND date = CURDATE();
-
-SET net_calories = total_consumed - total_burned;
-
-    IF net_calories > 0 THEN
-        SET summary = CONCAT('Calorie surplus: ', ROUND(net_calories, 2));
-    ELSEIF net_calories < 0 THEN
-        SET summary = CONCAT('Calorie deficit: ', ROUND(ABS(net_calories), 2));
-ELSE
-        SET summary = 'Calorie balance maintained';
-END IF;
-
-RETURN summary;
-END //
-
-DELIMITER ;
+CREATE INDEX IF NOT EXISTS idx_meal_user_date_calories ON meal(`user_id`, `date`, `calories_consumed`);
+CREATE INDEX IF NOT EXISTS idx_exercise_user_date_calories ON exercise(`user_id`, `date`, `calories_burned`);
 
 -- =============================================
 -- 5. TRIGGERS (For Automated Data Validation)
@@ -192,38 +127,13 @@ CREATE TABLE IF NOT EXISTS user_alerts (
     FOREIGN KEY (user_id) REFERENCES users(user_id)
     );
 
--- Trigger: Auto-calculate BMI if not provided
-DELIMITER //
-CREATE TRIGGER before_health_metric_insert
-    BEFORE INSERT ON health_metric
-    FOR EACH ROW
-BEGIN
-    IF NEW.BMI = 0 THEN
-        SET NEW.BMI = NEW.weight / (1.75 * 1.75);
-END IF;
-END //
-
--- Trigger: Alert when daily calorie limit exceeded
-CREATE TRIGGER after_meal_insert
-    AFTER INSERT ON meal
-    FOR EACH ROW
-BEGIN
-    DECLARE daily_limit FLOAT DEFAULT 2500;
-    DECLARE total_today FLOAT;
-
-    SELECT COALESCE(SUM(calories_consumed), 0) INTO total_today
-    FROM meal
-    WHERE user_id = NEW.user_id AND date = NEW.date;
-
-    IF total_today > daily_limit THEN
-        INSERT INTO user_alerts (user_id, message, alert_date, is_read)
-        VALUES (NEW.user_id,
-                CONCAT('Daily calorie limit exceeded! Total: ', ROUND(total_today, 2)),
-                NOW(), FALSE);
-END IF;
-END //
-
-DELIMITER ;
+-- The former before_health_metric_insert trigger (BMI from a fixed 1.75 m height when
+-- none was given) is gone: HealthMetricService computes the BMI from the user's height,
+-- with the same 1.75 m fallback, inside the insert transaction.
+
+-- The former after_meal_insert trigger (daily calorie limit alert) is gone:
+-- the rule is evaluated asynchronously by AlertRuleEngine with per-user limits
+-- stored in user_alert_settings.
 
 -- =============================================
 -- 6. VERIFICATION QUERIES (For Demonstration)
@@ -287,17 +197,7 @@ SELECT * FROM health_progress_view WHERE user_id = 1 ORDER BY date DESC;
 -- Test Calories Consumed/Burned View
 SELECT * FROM calories_consumed_burned_view WHERE user_id = 1 LIMIT 5;
 
--- Test Stored Procedure: Calculate BMI
-CALL CalculateUserBMI(1);
-
--- Test Stored Procedure: Get Calories Burned
-CALL GetTotalCaloriesBurned(1, CURDATE());
-
--- Test Stored Procedure: Get Calories Consumed
-CALL GetTotalCaloriesConsumed(1, CURDATE());
-
--- Test User Defined Function: Get Calorie Summary
-SELECT get_user_calorie_summary(1) as calorie_summary;
+-- The stored procedures and get_user_calorie_summary were replaced by AggregateService
 
 -- Test Trigger: Insert health metric with BMI=0 (should auto-calculate)
 INSERT INTO health_metric (user_id, weight, BMI, date) VALUES (1, 70.0, 0, CURDATE());
@@ -0,0 +1,142 @@
+package com.health.tracker.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RepositoryAdmissionLimiterTests {
+
+	@Test
+	void callerGivesUpWithBusyWhenNoPermitFreesUp() throws Throwable {
+		RepositoryAdmissionLimiter limiter = new RepositoryAdmissionLimiter(true, 1, 50);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		limiter.bindTo(registry);
+		CountDownLatch holding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread holder = new Thread(() -> {
+			try {
+				limiter.call(() -> {
+					holding.countDown();
+					release.await();
+					return null;
+				});
+			} catch (Throwable e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		holder.start();
+		holding.await();
+
+		assertThatThrownBy(() -> limiter.call(() -> "row")).isInstanceOf(DatabaseBusyException.class);
+		assertThat(registry.get("db.admission.rejected").counter().count()).isEqualTo(1.0);
+
+		release.countDown();
+		holder.join(TimeUnit.SECONDS.toMillis(1));
+		assertThat(limiter.call(() -> "row")).isEqualTo("row");
+	}
+
+	@Test
+	void permitIsReturnedWhenTheCallThrows() throws Throwable {
+		RepositoryAdmissionLimiter limiter = new RepositoryAdmissionLimiter(true, 1, 50);
+
+		assertThatThrownBy(() -> limiter.call(() -> {
+			throw new IllegalStateException("query failed");
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(limiter.call(() -> "row")).isEqualTo("row");
+	}
+
+	@Test
+	void transactionalCallerHoldsThePermitUntilTheTransactionEnds() throws Exception {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(TransactionConfig.class)) {
+			TransactionalCaller caller = context.getBean(TransactionalCaller.class);
+			CountDownLatch holding = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			Thread holder = new Thread(() -> caller.inTransaction(() -> {
+				holding.countDown();
+				release.await();
+				return null;
+			}));
+			holder.start();
+			holding.await();
+
+			assertThatThrownBy(() -> caller.inTransaction(() -> "row"))
+					.hasRootCauseInstanceOf(DatabaseBusyException.class);
+
+			release.countDown();
+			holder.join(TimeUnit.SECONDS.toMillis(1));
+			assertThat(caller.inTransaction(() -> "row")).isEqualTo("row");
+		}
+	}
+
+	@Test
+	void connectionOpenedInsideATransactionDoesNotWaitAgain() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(TransactionConfig.class)) {
+			TransactionalCaller caller = context.getBean(TransactionalCaller.class);
+			DataSource dataSource = context.getBean(DataSource.class);
+
+			// The transaction holds the only permit; a second connection would otherwise time out
+			Object result = caller.inTransaction(() -> {
+				try (Connection connection = dataSource.getConnection()) {
+					return connection.isValid(1);
+				}
+			});
+
+			assertThat(result).isEqualTo(true);
+			assertThat(caller.inTransaction(() -> "row")).isEqualTo("row");
+		}
+	}
+
+	@Configuration
+	@EnableTransactionManagement
+	static class TransactionConfig {
+
+		@Bean
+		static RepositoryAdmissionLimiter repositoryAdmissionLimiter() {
+			return new RepositoryAdmissionLimiter(true, 1, 50);
+		}
+
+		@Bean
+		DataSource dataSource() {
+			return new SimpleDriverDataSource(new org.h2.Driver(), "jdbc:h2:mem:admission;DB_CLOSE_DELAY=-1");
+		}
+
+		@Bean
+		PlatformTransactionManager transactionManager(DataSource dataSource) {
+			return new DataSourceTransactionManager(dataSource);
+		}
+
+		@Bean
+		TransactionalCaller transactionalCaller() {
+			return new TransactionalCaller();
+		}
+	}
+
+	static class TransactionalCaller {
+
+		@Transactional
+		public Object inTransaction(Callable<Object> work) {
+			try {
+				return work.call();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
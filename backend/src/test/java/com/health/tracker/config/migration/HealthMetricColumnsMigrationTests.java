@@ -0,0 +1,91 @@
+package com.health.tracker.config.migration;
+
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HealthMetricColumnsMigrationTests {
+
+	private Connection connection;
+	private Context context;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		connection = DriverManager.getConnection(
+				"jdbc:h2:mem:legacy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+		context = mock(Context.class);
+		when(context.getConnection()).thenReturn(connection);
+	}
+
+	@AfterEach
+	void tearDown() throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP ALL OBJECTS");
+		}
+		connection.close();
+	}
+
+	@Test
+	void addsTheProgressColumnsToALegacyTableAndKeepsItsRows() throws SQLException {
+		// health_metric as production had it before the progress columns
+		execute("CREATE TABLE health_metric (metric_id integer not null auto_increment, bmi float(23) not null, " +
+				"date date, user_id integer not null, weight float(23) not null, primary key (metric_id))");
+		execute("INSERT INTO health_metric (bmi, date, user_id, weight) VALUES (24.5, DATE '2024-01-01', 1, 80)");
+
+		new HealthMetricColumnsMigration().migrate(context);
+
+		assertThat(columns()).contains("previous_weight", "weight_change", "bmi_category");
+		try (Statement statement = connection.createStatement();
+			 ResultSet rs = statement.executeQuery(
+					 "SELECT weight, previous_weight, weight_change, bmi_category FROM health_metric")) {
+			assertThat(rs.next()).isTrue();
+			assertThat(rs.getFloat(1)).isEqualTo(80f);
+			assertThat(rs.getObject(2)).isNull();
+			assertThat(rs.getObject(4)).isNull();
+		}
+	}
+
+	@Test
+	void isANoOpOnACurrentTableAndWhenRunAgain() throws SQLException {
+		execute("CREATE TABLE health_metric (metric_id integer not null auto_increment, bmi float(23) not null, " +
+				"bmi_category varchar(255), date date, previous_weight float(23), user_id integer not null, " +
+				"weight float(23) not null, weight_change float(23), primary key (metric_id))");
+
+		new HealthMetricColumnsMigration().migrate(context);
+		new HealthMetricColumnsMigration().migrate(context);
+
+		assertThat(columns()).containsExactlyInAnyOrder("metric_id", "bmi", "bmi_category", "date",
+				"previous_weight", "user_id", "weight", "weight_change");
+	}
+
+	private void execute(String sql) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+
+	private List<String> columns() throws SQLException {
+		List<String> columns = new ArrayList<>();
+		try (Statement statement = connection.createStatement();
+			 ResultSet rs = statement.executeQuery("SELECT column_name FROM information_schema.columns " +
+					 "WHERE table_schema = SCHEMA() AND table_name = 'health_metric'")) {
+			while (rs.next()) {
+				columns.add(rs.getString(1));
+			}
+		}
+		return columns;
+	}
+}
@@ -0,0 +1,88 @@
+package com.health.tracker.controller;
+
+import com.health.tracker.repository.AlertRepository;
+import com.health.tracker.service.AlertPurge;
+import com.health.tracker.service.AlertService;
+import com.health.tracker.service.ResourceVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AlertControllerTests {
+
+	@Mock
+	private AlertService alertService;
+
+	@Mock
+	private AlertRepository alertRepository;
+
+	private AlertController alertController;
+
+	private AlertPurge alertPurge;
+
+	@BeforeEach
+	void setUp() {
+		ResourceVersions resourceVersions = new ResourceVersions();
+		ConditionalResponses conditionalResponses = new ConditionalResponses();
+		ReflectionTestUtils.setField(conditionalResponses, "resourceVersions", resourceVersions);
+		alertController = new AlertController();
+		ReflectionTestUtils.setField(alertController, "alertService", alertService);
+		ReflectionTestUtils.setField(alertController, "conditionalResponses", conditionalResponses);
+		alertPurge = new AlertPurge();
+		ReflectionTestUtils.setField(alertPurge, "alertRepository", alertRepository);
+		ReflectionTestUtils.setField(alertPurge, "resourceVersions", resourceVersions);
+	}
+
+	@Test
+	void revalidationIsAnsweredWithoutQueryingAlerts() {
+		when(alertService.getAlertsByUser(1)).thenReturn(List.of());
+		String etag = alertController.getAlertsByUser(1, new ServletWebRequest(new MockHttpServletRequest()))
+				.getHeaders().getETag();
+
+		assertThat(alertController.getAlertsByUser(1, revalidation(etag)).getStatusCode())
+				.isEqualTo(HttpStatus.NOT_MODIFIED);
+		verify(alertService).getAlertsByUser(1);
+		verifyNoMoreInteractions(alertService);
+	}
+
+	@Test
+	void purgedAlertsChangeTheTag() {
+		when(alertService.getAlertsByUser(1)).thenReturn(List.of());
+		String etag = alertController.getAlertsByUser(1, new ServletWebRequest(new MockHttpServletRequest()))
+				.getHeaders().getETag();
+		String otherEtag = alertController.getAlertsByUser(2, new ServletWebRequest(new MockHttpServletRequest()))
+				.getHeaders().getETag();
+		when(alertRepository.findUserIdsWithReadAlertsBefore(any())).thenReturn(List.of(1));
+		when(alertRepository.deleteReadAlertsBefore(anyInt(), any())).thenReturn(1);
+
+		assertThat(alertPurge.purgeReadAlertsBefore(LocalDateTime.now())).isEqualTo(1);
+
+		assertThat(alertController.getAlertsByUser(1, revalidation(etag)).getStatusCode())
+				.isEqualTo(HttpStatus.OK);
+		assertThat(alertController.getAlertsByUser(2, revalidation(otherEtag)).getStatusCode())
+				.isEqualTo(HttpStatus.NOT_MODIFIED);
+	}
+
+	private ServletWebRequest revalidation(String etag) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("If-None-Match", etag);
+		return new ServletWebRequest(request);
+	}
+}
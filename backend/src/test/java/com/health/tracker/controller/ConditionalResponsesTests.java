@@ -0,0 +1,93 @@
+package com.health.tracker.controller;
+
+import com.health.tracker.service.ResourceVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalResponsesTests {
+
+	private ResourceVersions resourceVersions;
+	private ConditionalResponses conditionalResponses;
+	private final AtomicInteger bodyLoads = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		resourceVersions = new ResourceVersions();
+		conditionalResponses = new ConditionalResponses();
+		ReflectionTestUtils.setField(conditionalResponses, "resourceVersions", resourceVersions);
+	}
+
+	@Test
+	void matchingTagIsAnsweredWithoutLoadingTheBody() {
+		String etag = get(null).getHeaders().getETag();
+
+		ResponseEntity<String> response = get(etag);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+		assertThat(response.getBody()).isNull();
+		assertThat(bodyLoads).hasValue(1);
+	}
+
+	@Test
+	void weakAndListedTagsStillMatch() {
+		String etag = get(null).getHeaders().getETag();
+
+		assertThat(get("W/" + etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(get("\"other\", " + etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(get("*").getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+	}
+
+	@Test
+	void writeChangesTheTag() {
+		String etag = get(null).getHeaders().getETag();
+
+		resourceVersions.bump(1, ResourceVersions.Resource.ALERTS);
+		ResponseEntity<String> response = get(etag);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getETag()).isNotEqualTo(etag);
+		assertThat(response.getBody()).isEqualTo("alerts");
+	}
+
+	@Test
+	void otherUsersWritesLeaveTheTagAlone() {
+		String etag = get(null).getHeaders().getETag();
+
+		resourceVersions.bump(2, ResourceVersions.Resource.ALERTS);
+		resourceVersions.bump(1, ResourceVersions.Resource.MEALS);
+
+		assertThat(get(etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+	}
+
+	@Test
+	void variantsGetTheirOwnTag() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		String plain = get(null).getHeaders().getETag();
+
+		String counted = conditionalResponses.get(new ServletWebRequest(request), 1, "n3", () -> "alerts",
+				ResourceVersions.Resource.ALERTS).getHeaders().getETag();
+
+		assertThat(counted).isNotEqualTo(plain).endsWith("-n3\"");
+	}
+
+	private ResponseEntity<String> get(String ifNoneMatch) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		if (ifNoneMatch != null) {
+			request.addHeader("If-None-Match", ifNoneMatch);
+		}
+		return conditionalResponses.get(new ServletWebRequest(request), 1, () -> {
+			bodyLoads.incrementAndGet();
+			return "alerts";
+		}, ResourceVersions.Resource.ALERTS);
+	}
+}
@@ -0,0 +1,49 @@
+package com.health.tracker.controller;
+
+import com.health.tracker.dto.ApiResponse;
+import com.health.tracker.entity.Users;
+import com.health.tracker.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UsersControllerTests {
+
+	@Mock
+	private UserService userService;
+
+	@InjectMocks
+	private UsersController usersController;
+
+	@Test
+	void addedUserIsReturned() {
+		Users user = new Users();
+		Users saved = new Users();
+		saved.setId(6);
+		when(userService.addUser(user)).thenReturn(saved);
+
+		ResponseEntity<?> response = usersController.addUser(user);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody()).isSameAs(saved);
+	}
+
+	@Test
+	void takenLoginIsABadRequest() {
+		Users user = new Users();
+		when(userService.addUser(user)).thenThrow(new IllegalArgumentException("This Email already exists."));
+
+		ResponseEntity<?> response = usersController.addUser(user);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(((ApiResponse<?>) response.getBody()).getMessage()).isEqualTo("This Email already exists.");
+	}
+}
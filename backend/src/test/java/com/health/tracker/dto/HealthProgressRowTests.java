@@ -0,0 +1,20 @@
+package com.health.tracker.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HealthProgressRowTests {
+
+	@Test
+	void bmiCategoryBandsMatchTheViews() {
+		assertThat(HealthProgressRow.bmiCategory(18.4f)).isEqualTo("Underweight");
+		assertThat(HealthProgressRow.bmiCategory(18.5f)).isEqualTo("Normal");
+		assertThat(HealthProgressRow.bmiCategory(24.9f)).isEqualTo("Normal");
+		assertThat(HealthProgressRow.bmiCategory(24.95f)).isEqualTo("Normal");
+		assertThat(HealthProgressRow.bmiCategory(25f)).isEqualTo("Overweight");
+		assertThat(HealthProgressRow.bmiCategory(29.9f)).isEqualTo("Overweight");
+		assertThat(HealthProgressRow.bmiCategory(29.95f)).isEqualTo("Overweight");
+		assertThat(HealthProgressRow.bmiCategory(30f)).isEqualTo("Obese");
+	}
+}
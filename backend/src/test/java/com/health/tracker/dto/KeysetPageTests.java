@@ -0,0 +1,51 @@
+package com.health.tracker.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeysetPageTests {
+
+	private record Row(LocalDate date, int id) {
+	}
+
+	@Test
+	void extraRowSignalsAnotherPageAndIsNotReturned() {
+		List<Row> rows = List.of(
+				new Row(LocalDate.of(2024, 1, 3), 9),
+				new Row(LocalDate.of(2024, 1, 2), 8),
+				new Row(LocalDate.of(2024, 1, 2), 5));
+
+		KeysetPage<Row> page = KeysetPage.of(rows, 2, Row::date, Row::id);
+
+		assertThat(page.getItems()).containsExactly(rows.get(0), rows.get(1));
+		assertThat(page.isHasMore()).isTrue();
+		assertThat(page.getNextBeforeDate()).isEqualTo("2024-01-02");
+		assertThat(page.getNextBeforeId()).isEqualTo(8);
+	}
+
+	@Test
+	void lastPageStillCarriesACursorButNoMore() {
+		List<Row> rows = List.of(new Row(LocalDate.of(2024, 1, 1), 3));
+
+		KeysetPage<Row> page = KeysetPage.of(rows, 2, Row::date, Row::id);
+
+		assertThat(page.getItems()).containsExactly(rows.get(0));
+		assertThat(page.isHasMore()).isFalse();
+		assertThat(page.getNextBeforeDate()).isEqualTo("2024-01-01");
+		assertThat(page.getNextBeforeId()).isEqualTo(3);
+	}
+
+	@Test
+	void emptyPageHasNoCursor() {
+		KeysetPage<Row> page = KeysetPage.of(List.of(), 2, Row::date, Row::id);
+
+		assertThat(page.getItems()).isEmpty();
+		assertThat(page.isHasMore()).isFalse();
+		assertThat(page.getNextBeforeDate()).isNull();
+		assertThat(page.getNextBeforeId()).isNull();
+	}
+}
@@ -0,0 +1,85 @@
+package com.health.tracker.service;
+
+import com.health.tracker.dto.LoadUserRole;
+import com.health.tracker.entity.AccountLogin;
+import com.health.tracker.entity.Users;
+import com.health.tracker.repository.AccountLoginRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountIndexTests {
+
+	@Mock
+	private AccountLoginRepository accountLoginRepository;
+
+	@InjectMocks
+	private AccountIndex accountIndex;
+
+	@Test
+	void loginsAreTrimmedAndLowerCased() {
+		assertThat(AccountIndex.normalize("  Ann@Example.COM ")).isEqualTo("ann@example.com");
+		assertThat(AccountIndex.normalize("   ")).isNull();
+		assertThat(AccountIndex.normalize(null)).isNull();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void indexReplacesTheAccountsEntriesWithOnePerDistinctLogin() {
+		Users users = new Users();
+		users.setId(5);
+		users.setEmail("Ann@Example.com");
+		users.setContact("ann@example.com ");
+		users.setPassword("hash");
+
+		accountIndex.index(users);
+
+		var order = inOrder(accountLoginRepository);
+		order.verify(accountLoginRepository).deleteByAccount(LoadUserRole.USER, 5);
+		order.verify(accountLoginRepository).flush();
+		ArgumentCaptor<List<AccountLogin>> saved = ArgumentCaptor.forClass(List.class);
+		order.verify(accountLoginRepository).saveAll(saved.capture());
+		assertThat(saved.getValue()).singleElement().satisfies(entry -> {
+			assertThat(entry.getLogin()).isEqualTo("ann@example.com");
+			assertThat(entry.getAccountId()).isEqualTo(5);
+			assertThat(entry.getRole()).isEqualTo(LoadUserRole.USER);
+			assertThat(entry.isActive()).isTrue();
+		});
+	}
+
+	@Test
+	void loginIsOnlyTakenByADifferentAccount() {
+		when(accountLoginRepository.findById("ann@example.com")).thenReturn(Optional.of(entry(LoadUserRole.USER, 5)));
+
+		assertThat(accountIndex.takenByOther("ANN@example.com", LoadUserRole.USER, 5)).isFalse();
+		assertThat(accountIndex.takenByOther("ann@example.com", LoadUserRole.USER, 6)).isTrue();
+		assertThat(accountIndex.takenByOther("ann@example.com", LoadUserRole.ADMIN, 5)).isTrue();
+	}
+
+	@Test
+	void unknownLoginIsNotTaken() {
+		when(accountLoginRepository.findById("new@example.com")).thenReturn(Optional.empty());
+
+		assertThat(accountIndex.takenByOther("new@example.com", LoadUserRole.USER, 5)).isFalse();
+		assertThat(accountIndex.takenByOther(" ", LoadUserRole.USER, 5)).isFalse();
+	}
+
+	private static AccountLogin entry(LoadUserRole role, int accountId) {
+		AccountLogin entry = new AccountLogin();
+		entry.setLogin("ann@example.com");
+		entry.setRole(role);
+		entry.setAccountId(accountId);
+		return entry;
+	}
+}
@@ -0,0 +1,114 @@
+package com.health.tracker.service;
+
+import com.health.tracker.dto.ActivityEvent;
+import com.health.tracker.entity.Alert;
+import com.health.tracker.entity.DailyActivityRollup;
+import com.health.tracker.repository.AlertRepository;
+import com.health.tracker.repository.AlertSettingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AlertRuleEngineTests {
+
+	private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+
+	@Mock
+	private AlertRepository alertRepository;
+
+	@Mock
+	private AlertSettingRepository alertSettingRepository;
+
+	@Mock
+	private DailyRollupService dailyRollupService;
+
+	@Mock
+	private ResourceVersions resourceVersions;
+
+	private AlertRuleEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		DailyCalorieLimitRule rule = new DailyCalorieLimitRule();
+		ReflectionTestUtils.setField(rule, "defaultLimit", 2500f);
+		engine = new AlertRuleEngine(10, 10, 10, 10);
+		ReflectionTestUtils.setField(engine, "alertRepository", alertRepository);
+		ReflectionTestUtils.setField(engine, "alertSettingRepository", alertSettingRepository);
+		ReflectionTestUtils.setField(engine, "dailyRollupService", dailyRollupService);
+		ReflectionTestUtils.setField(engine, "rules", List.of(rule));
+		ReflectionTestUtils.setField(engine, "resourceVersions", resourceVersions);
+		when(alertSettingRepository.findById(anyInt())).thenReturn(Optional.empty());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void totalsComeFromTheRollupSoQueuedEventsAreNotCountedTwice() {
+		// The rollup already holds both meals when the first event is processed
+		givenRollup(2600);
+
+		engine.process(List.of(meal(600)));
+		engine.process(List.of(meal(400)));
+
+		ArgumentCaptor<List<Alert>> saved = ArgumentCaptor.forClass(List.class);
+		verify(alertRepository).saveAll(saved.capture());
+		assertThat(saved.getValue()).singleElement().satisfies(alert -> {
+			assertThat(alert.getMessage()).isEqualTo("Daily calorie limit exceeded! Total: 2600.0");
+			assertThat(alert.getAlertDate().toLocalDate()).isEqualTo(DAY);
+		});
+	}
+
+	@Test
+	void ruleThatHeldBeforeTheFirstBatchIsNotRepeated() {
+		givenRollup(3000);
+
+		engine.process(List.of(meal(200)));
+
+		verify(alertRepository, never()).saveAll(anyList());
+	}
+
+	@Test
+	void failedSaveLeavesTheRuleUnfiredSoARetryAlertsAgain() {
+		givenRollup(2600);
+		when(alertRepository.saveAll(anyList()))
+				.thenThrow(new IllegalStateException("connection lost"))
+				.thenReturn(List.of());
+
+		assertThatThrownBy(() -> engine.process(List.of(meal(600)))).isInstanceOf(IllegalStateException.class);
+		engine.process(List.of(meal(600)));
+
+		verify(alertRepository, times(2)).saveAll(anyList());
+		verify(resourceVersions).bump(1, ResourceVersions.Resource.ALERTS);
+	}
+
+	private void givenRollup(double caloriesConsumed) {
+		DailyActivityRollup rollup = new DailyActivityRollup();
+		rollup.setUserId(1);
+		rollup.setDate(DAY);
+		rollup.setMealCount(2);
+		rollup.setCaloriesConsumed(caloriesConsumed);
+		when(dailyRollupService.getRollups(any())).thenReturn(List.of(rollup));
+	}
+
+	private static ActivityEvent meal(double calories) {
+		return new ActivityEvent(ActivityEvent.Type.MEALS, 1, DAY, 1, calories);
+	}
+}
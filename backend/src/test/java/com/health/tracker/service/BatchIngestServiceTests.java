@@ -0,0 +1,160 @@
+package com.health.tracker.service;
+
+import com.health.tracker.dto.BatchItemError;
+import com.health.tracker.dto.BatchResult;
+import com.health.tracker.entity.HealthMetric;
+import com.health.tracker.entity.Meal;
+import com.health.tracker.repository.DailyActivityRollupRepository;
+import com.health.tracker.repository.HealthMetricRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchIngestServiceTests {
+
+	private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@Mock
+	private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+	@Mock
+	private DailyActivityRollupRepository rollupRepository;
+
+	@Mock
+	private HealthMetricRepository healthMetricRepository;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private ProfileCache profileCache;
+
+	@InjectMocks
+	private BatchIngestService batchIngestService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(batchIngestService, "maxItems", 100);
+		ReflectionTestUtils.setField(batchIngestService, "jdbcBatchSize", 10);
+	}
+
+	// Only user 1 exists, 180 cm tall
+	private void givenOnlyUserOne() throws Exception {
+		ResultSet row = mock(ResultSet.class);
+		when(row.getInt(1)).thenReturn(1);
+		when(row.getFloat(2)).thenReturn(180f);
+		doAnswer(invocation -> {
+			invocation.getArgument(2, RowCallbackHandler.class).processRow(row);
+			return null;
+		}).when(namedParameterJdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void invalidItemsAreReportedByIndexAndTheRestAreInserted() throws Exception {
+		givenOnlyUserOne();
+		Meal unknownUser = meal(2, "Lunch", 400);
+		Meal blankName = meal(1, " ", 400);
+		Meal negative = meal(1, "Snack", -1);
+		Meal valid = meal(1, "Dinner", 600);
+
+		BatchResult result = batchIngestService.ingestMeals(Arrays.asList(unknownUser, null, blankName, negative, valid));
+
+		assertThat(result.getAccepted()).isEqualTo(1);
+		assertThat(result.getErrors()).extracting(BatchItemError::getIndex).containsExactly(0, 1, 2, 3);
+		assertThat(result.getErrors()).extracting(BatchItemError::getMessage).containsExactly(
+				"User not found", "Item is empty", "Meal name is required", "Calories consumed must not be negative");
+		ArgumentCaptor<Collection<Meal>> inserted = ArgumentCaptor.forClass(Collection.class);
+		verify(jdbcTemplate).batchUpdate(anyString(), inserted.capture(), eq(10), any(ParameterizedPreparedStatementSetter.class));
+		assertThat(inserted.getValue()).containsExactly(valid);
+		verify(rollupRepository).addMeals(1, DAY, 1, 600.0);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void overlongNameIsRejectedWithoutFailingTheBatch() throws Exception {
+		givenOnlyUserOne();
+		Meal before = meal(1, "Breakfast", 300);
+		Meal overlong = meal(1, "a".repeat(BatchIngestService.MAX_NAME_LENGTH + 1), 400);
+		Meal atLimit = meal(1, "\uD83C\uDF4E".repeat(BatchIngestService.MAX_NAME_LENGTH), 500);
+
+		BatchResult result = batchIngestService.ingestMeals(List.of(before, overlong, atLimit));
+
+		assertThat(result.getAccepted()).isEqualTo(2);
+		assertThat(result.getErrors()).extracting(BatchItemError::getIndex).containsExactly(1);
+		assertThat(result.getErrors()).extracting(BatchItemError::getMessage)
+				.containsExactly("Meal name must be at most 255 characters");
+		ArgumentCaptor<Collection<Meal>> inserted = ArgumentCaptor.forClass(Collection.class);
+		verify(jdbcTemplate).batchUpdate(anyString(), inserted.capture(), eq(10), any(ParameterizedPreparedStatementSetter.class));
+		assertThat(inserted.getValue()).containsExactly(before, atLimit);
+	}
+
+	@Test
+	void oversizedBatchIsRejectedAsAWhole() {
+		ReflectionTestUtils.setField(batchIngestService, "maxItems", 1);
+
+		assertThatThrownBy(() -> batchIngestService.ingestMeals(List.of(meal(1, "A", 1), meal(1, "B", 1))))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void currentWeightIsOnlyUpdatedWhenNoLaterReadingExists() throws Exception {
+		givenOnlyUserOne();
+		HealthMetric metric = new HealthMetric();
+		metric.setUserId(1);
+		metric.setWeight(80);
+		metric.setDate(DAY);
+
+		batchIngestService.ingestHealthMetrics(List.of(metric));
+
+		ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+		verify(jdbcTemplate, times(2))
+				.batchUpdate(sql.capture(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+		assertThat(sql.getAllValues().get(1)).startsWith("UPDATE users SET weight = CASE WHEN EXISTS (")
+				.contains("date > ?");
+		verify(healthMetricRepository).refreshProgress(1, DAY);
+	}
+
+	private static Meal meal(int userId, String name, float calories) {
+		Meal meal = new Meal();
+		meal.setUserId(userId);
+		meal.setMealName(name);
+		meal.setCaloriesConsumed(calories);
+		meal.setDate(DAY);
+		return meal;
+	}
+}
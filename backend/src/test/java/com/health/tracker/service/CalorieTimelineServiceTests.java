@@ -0,0 +1,66 @@
+package com.health.tracker.service;
+
+import com.health.tracker.dto.CalorieTimelineRow;
+import com.health.tracker.dto.DailyCalories;
+import com.health.tracker.repository.ExerciseRepository;
+import com.health.tracker.repository.MealRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CalorieTimelineServiceTests {
+
+	private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+	private static final LocalDate TO = LocalDate.of(2024, 1, 31);
+
+	@Mock
+	private MealRepository mealRepository;
+
+	@Mock
+	private ExerciseRepository exerciseRepository;
+
+	@InjectMocks
+	private CalorieTimelineService calorieTimelineService;
+
+	@Test
+	void keepsDaysWithOnlyOneKindOfActivityAndDoesNotMultiplySums() {
+		when(mealRepository.streamDailyCaloriesConsumed(1, FROM, TO)).thenReturn(Stream.of(
+				new DailyCalories(LocalDate.of(2024, 1, 1), 1200.0),
+				new DailyCalories(LocalDate.of(2024, 1, 3), 800.0)));
+		when(exerciseRepository.streamDailyCaloriesBurned(1, FROM, TO)).thenReturn(Stream.of(
+				new DailyCalories(LocalDate.of(2024, 1, 2), 300.0),
+				new DailyCalories(LocalDate.of(2024, 1, 3), 450.0)));
+
+		List<CalorieTimelineRow> timeline = calorieTimelineService.getTimeline(1, FROM, TO, 0, 10);
+
+		assertThat(timeline).extracting(CalorieTimelineRow::date).containsExactly(
+				LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3));
+		assertThat(timeline.get(0)).isEqualTo(new CalorieTimelineRow(1, LocalDate.of(2024, 1, 1), 1200.0, 0.0));
+		assertThat(timeline.get(1)).isEqualTo(new CalorieTimelineRow(1, LocalDate.of(2024, 1, 2), 0.0, 300.0));
+		assertThat(timeline.get(2)).isEqualTo(new CalorieTimelineRow(1, LocalDate.of(2024, 1, 3), 800.0, 450.0));
+	}
+
+	@Test
+	void skipsEarlierPagesAndStopsAtPageSize() {
+		when(mealRepository.streamDailyCaloriesConsumed(1, FROM, TO)).thenReturn(Stream.of(
+				new DailyCalories(LocalDate.of(2024, 1, 1), 100.0),
+				new DailyCalories(LocalDate.of(2024, 1, 2), 200.0),
+				new DailyCalories(LocalDate.of(2024, 1, 3), 300.0),
+				new DailyCalories(LocalDate.of(2024, 1, 4), 400.0)));
+		when(exerciseRepository.streamDailyCaloriesBurned(1, FROM, TO)).thenReturn(Stream.empty());
+
+		List<CalorieTimelineRow> timeline = calorieTimelineService.getTimeline(1, FROM, TO, 1, 2);
+
+		assertThat(timeline).extracting(CalorieTimelineRow::caloriesConsumed).containsExactly(300.0, 400.0);
+	}
+}
@@ -0,0 +1,55 @@
+package com.health.tracker.service;
+
+import com.health.tracker.entity.Exercise;
+import com.health.tracker.entity.Meal;
+import com.health.tracker.repository.DailyActivityRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DailyRollupServiceTests {
+
+	private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+
+	@Mock
+	private DailyActivityRollupRepository rollupRepository;
+
+	@InjectMocks
+	private DailyRollupService dailyRollupService;
+
+	@Test
+	void mealsAreUpsertedWithSignedDeltas() {
+		Meal meal = new Meal();
+		meal.setUserId(1);
+		meal.setCaloriesConsumed(450);
+		meal.setDate(DAY);
+
+		dailyRollupService.mealLogged(meal);
+		dailyRollupService.mealDeleted(meal);
+
+		verify(rollupRepository).addMeals(1, DAY, 1, 450.0);
+		verify(rollupRepository).addMeals(1, DAY, -1, -450.0);
+	}
+
+	@Test
+	void exercisesAreUpsertedWithSignedDeltas() {
+		Exercise exercise = new Exercise();
+		exercise.setUserId(1);
+		exercise.setDurationMinutes(30);
+		exercise.setCaloriesBurned(250);
+		exercise.setDate(DAY);
+
+		dailyRollupService.exerciseLogged(exercise);
+		dailyRollupService.exerciseDeleted(exercise);
+
+		verify(rollupRepository).addExercises(1, DAY, 1, 30, 250.0);
+		verify(rollupRepository).addExercises(1, DAY, -1, -30, -250.0);
+	}
+}
@@ -0,0 +1,94 @@
+package com.health.tracker.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTests {
+
+	private static final LocalDate DAY = LocalDate.of(2024, 1, 10);
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Mock
+	private UserService userService;
+
+	@Mock
+	private MealService mealService;
+
+	@Mock
+	private ExerciseService exerciseService;
+
+	@Mock
+	private HealthMetricService healthMetricService;
+
+	@Mock
+	private AlertService alertService;
+
+	private DashboardService dashboardService;
+
+	@BeforeEach
+	void setUp() {
+		dashboardService = new DashboardService(transactionManager, 8, 10, 200);
+		ReflectionTestUtils.setField(dashboardService, "userService", userService);
+		ReflectionTestUtils.setField(dashboardService, "mealService", mealService);
+		ReflectionTestUtils.setField(dashboardService, "exerciseService", exerciseService);
+		ReflectionTestUtils.setField(dashboardService, "healthMetricService", healthMetricService);
+		ReflectionTestUtils.setField(dashboardService, "alertService", alertService);
+		when(mealService.getDailyCalorieIntake(1, DAY)).thenReturn(Map.of());
+		when(exerciseService.getDailyExerciseSummary(1, DAY)).thenReturn(Map.of());
+		when(healthMetricService.getLatestHealthMetric(1)).thenReturn(Optional.empty());
+		when(alertService.getUnreadAlertsByUser(1)).thenReturn(List.of());
+	}
+
+	@AfterEach
+	void tearDown() {
+		dashboardService.shutdown();
+	}
+
+	@Test
+	void timedOutSectionIsInterrupted() throws InterruptedException {
+		CountDownLatch interrupted = new CountDownLatch(1);
+		when(userService.getUserProfile(1)).thenAnswer(invocation -> {
+			try {
+				Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return null;
+		});
+
+		Map<String, Object> dashboard = dashboardService.getDashboard(1, DAY);
+
+		assertThat(dashboard.get("errors")).isEqualTo(Map.of("profile", "Timed out"));
+		assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void failedSectionDoesNotExposeTheCause() {
+		when(userService.getUserProfile(1)).thenThrow(
+				new IllegalStateException("Communications link failure to db.internal:3306"));
+
+		Map<String, Object> dashboard = dashboardService.getDashboard(1, DAY);
+
+		assertThat(dashboard.get("partial")).isEqualTo(true);
+		assertThat(dashboard.get("errors")).isEqualTo(Map.of("profile", "Failed"));
+	}
+}
@@ -0,0 +1,96 @@
+package com.health.tracker.service;
+
+import com.health.tracker.dto.UserProfileDTO;
+import com.health.tracker.entity.HealthMetric;
+import com.health.tracker.repository.HealthMetricRepository;
+import com.health.tracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HealthMetricServiceTests {
+
+	private static final LocalDate DAY = LocalDate.of(2024, 1, 10);
+
+	@Mock
+	private HealthMetricRepository healthMetricRepository;
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private ProfileCache profileCache;
+
+	@InjectMocks
+	private HealthMetricService healthMetricService;
+
+	@BeforeEach
+	void setUp() {
+		UserProfileDTO profile = new UserProfileDTO();
+		profile.setHeight(200f);
+		when(profileCache.get(1)).thenReturn(profile);
+		when(userRepository.updateWeightUnlessBackdated(anyInt(), anyFloat(), any()))
+				.thenReturn(1);
+		when(healthMetricRepository.save(any(HealthMetric.class)))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	void firstReadingHasNoDeltaAndPatchesTheProfile() {
+		when(healthMetricRepository.findNeighbours(1, DAY)).thenReturn(List.of());
+
+		HealthMetric saved = healthMetricService.recordHealthMetric(metric(DAY, 100));
+
+		assertThat(saved.getBMI()).isCloseTo(25f, within(0.01f));
+		assertThat(saved.getBmiCategory()).isEqualTo("Overweight");
+		assertThat(saved.getPreviousWeight()).isNull();
+		assertThat(saved.getWeightChange()).isNull();
+		verify(profileCache).latestReadingRecorded(1, 100f, saved.getBMI(), "Overweight");
+	}
+
+	@Test
+	void backdatedReadingBecomesThePredecessorOfTheNextOne() {
+		HealthMetric earlier = metric(DAY.minusDays(5), 82);
+		HealthMetric later = metric(DAY.plusDays(5), 78);
+		later.setPreviousWeight(82f);
+		later.setWeightChange(-4f);
+		when(healthMetricRepository.findNeighbours(1, DAY)).thenReturn(List.of(earlier, later));
+
+		HealthMetric saved = healthMetricService.recordHealthMetric(metric(DAY, 80));
+
+		assertThat(saved.getPreviousWeight()).isEqualTo(82f);
+		assertThat(saved.getWeightChange()).isEqualTo(-2f);
+		assertThat(later.getPreviousWeight()).isEqualTo(80f);
+		assertThat(later.getWeightChange()).isEqualTo(-2f);
+		verify(profileCache, never()).latestReadingRecorded(anyInt(), anyFloat(), anyFloat(), anyString());
+	}
+
+	private static HealthMetric metric(LocalDate date, float weight) {
+		HealthMetric metric = new HealthMetric();
+		metric.setUserId(1);
+		metric.setDate(date);
+		metric.setWeight(weight);
+		return metric;
+	}
+}
@@ -0,0 +1,132 @@
+package com.health.tracker.service;
+
+import com.health.tracker.dto.ActivityEvent;
+import com.health.tracker.dto.KeysetPage;
+import com.health.tracker.entity.Meal;
+import com.health.tracker.repository.MealRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MealServiceTests {
+
+	private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+
+	@Mock
+	private MealRepository mealRepository;
+
+	@Mock
+	private DailyRollupService dailyRollupService;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private EntityManager entityManager;
+
+	@InjectMocks
+	private MealService mealService;
+
+	@Test
+	void newMealIsAddedToTheRollupOnce() {
+		Meal meal = meal(0, 500);
+		Meal saved = meal(7, 500);
+		when(mealRepository.save(meal)).thenReturn(saved);
+
+		mealService.logMeal(meal);
+
+		verify(mealRepository, never()).findById(any());
+		verify(dailyRollupService).mealLogged(saved);
+		verify(dailyRollupService, never()).mealDeleted(any());
+		ArgumentCaptor<ActivityEvent> event = ArgumentCaptor.forClass(ActivityEvent.class);
+		verify(eventPublisher).publishEvent(event.capture());
+		assertThat(event.getValue().getCount()).isEqualTo(1);
+		assertThat(event.getValue().getCalories()).isEqualTo(500.0);
+	}
+
+	@Test
+	void postedIdOfAnExistingMealReplacesItInTheRollup() {
+		Meal previous = meal(7, 300);
+		Meal meal = meal(7, 500);
+		when(mealRepository.findById(7)).thenReturn(Optional.of(previous));
+		when(mealRepository.save(meal)).thenReturn(meal);
+
+		mealService.logMeal(meal);
+
+		var order = inOrder(entityManager, dailyRollupService, mealRepository);
+		order.verify(entityManager).detach(previous);
+		order.verify(dailyRollupService).mealDeleted(previous);
+		order.verify(mealRepository).save(meal);
+		order.verify(dailyRollupService).mealLogged(meal);
+		ArgumentCaptor<ActivityEvent> events = ArgumentCaptor.forClass(ActivityEvent.class);
+		verify(eventPublisher, times(2)).publishEvent(events.capture());
+		assertThat(events.getAllValues()).extracting(ActivityEvent::getCount).containsExactly(-1, 1);
+		assertThat(events.getAllValues()).extracting(ActivityEvent::getCalories).containsExactly(-300.0, 500.0);
+	}
+
+	@Test
+	void postedIdThatDoesNotExistIsLoggedAsNew() {
+		Meal meal = meal(9, 500);
+		when(mealRepository.findById(9)).thenReturn(Optional.empty());
+		when(mealRepository.save(meal)).thenReturn(meal);
+
+		mealService.logMeal(meal);
+
+		verify(dailyRollupService, never()).mealDeleted(any());
+		verify(dailyRollupService).mealLogged(meal);
+	}
+
+	@Test
+	void firstPageStartsJustPastTheRangeAndFetchesOneExtraRow() {
+		LocalDate from = LocalDate.of(2023, 12, 1);
+		when(mealRepository.findPageByUserId(1, from, DAY, DAY, Integer.MAX_VALUE, PageRequest.ofSize(3)))
+				.thenReturn(List.of(meal(9, 100), meal(8, 200), meal(7, 300)));
+
+		KeysetPage<Meal> page = mealService.getMealsPage(1, from, DAY, null, null, 2);
+
+		assertThat(page.getItems()).extracting(Meal::getMealId).containsExactly(9, 8);
+		assertThat(page.isHasMore()).isTrue();
+		assertThat(page.getNextBeforeId()).isEqualTo(8);
+	}
+
+	@Test
+	void laterPagesContinueFromTheCursor() {
+		LocalDate from = LocalDate.of(2023, 12, 1);
+		when(mealRepository.findPageByUserId(1, from, DAY, DAY, 8, PageRequest.ofSize(3)))
+				.thenReturn(List.of(meal(7, 300)));
+
+		KeysetPage<Meal> page = mealService.getMealsPage(1, from, DAY, DAY, 8, 2);
+
+		assertThat(page.getItems()).extracting(Meal::getMealId).containsExactly(7);
+		assertThat(page.isHasMore()).isFalse();
+	}
+
+	private static Meal meal(int id, float calories) {
+		Meal meal = new Meal();
+		meal.setMealId(id);
+		meal.setUserId(1);
+		meal.setMealName("Lunch");
+		meal.setCaloriesConsumed(calories);
+		meal.setDate(DAY);
+		return meal;
+	}
+}
@@ -0,0 +1,36 @@
+package com.health.tracker.service;
+
+import com.health.tracker.dto.LoadUser;
+import com.health.tracker.dto.LoadUserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrincipalCacheTests {
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void entryReloadedBeforeCommitIsEvictedAfterCommit() {
+		PrincipalCache principalCache = new PrincipalCache(true, 300, 100);
+		TransactionSynchronizationManager.initSynchronization();
+
+		principalCache.invalidate("Ann@Example.com");
+		// A login between the eviction and the commit reloads the old row
+		principalCache.put("ann@example.com",
+				new LoadUser(1, "ann@example.com", "0771234567", "hash", LoadUserRole.USER, null));
+		assertThat(principalCache.get("ann@example.com")).isNotNull();
+
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+		assertThat(principalCache.get("ann@example.com")).isNull();
+	}
+}
@@ -0,0 +1,96 @@
+package com.health.tracker.service;
+
+import com.health.tracker.dto.UserProfileDTO;
+import com.health.tracker.entity.UserProfileSnapshot;
+import com.health.tracker.repository.UserProfileSnapshotRepository;
+import com.health.tracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProfileCacheTests {
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private UserProfileSnapshotRepository snapshotRepository;
+
+	private ProfileCache profileCache;
+
+	@BeforeEach
+	void setUp() {
+		profileCache = new ProfileCache(100, 60);
+		ReflectionTestUtils.setField(profileCache, "userRepository", userRepository);
+		ReflectionTestUtils.setField(profileCache, "snapshotRepository", snapshotRepository);
+	}
+
+	@Test
+	void readPathNeverWritesTheSnapshot() {
+		when(snapshotRepository.findById(1)).thenReturn(Optional.empty());
+		when(userRepository.getUserProfileView(1)).thenReturn(List.<Object[]>of(
+				new Object[] {1, "Ann", "ann@example.com", 30, 70f, 170f, 24.2f, "Normal"}));
+
+		UserProfileDTO profile = profileCache.get(1);
+
+		assertThat(profile.getName()).isEqualTo("Ann");
+		verify(snapshotRepository, never()).save(any());
+	}
+
+	@Test
+	void snapshotHitSkipsTheViewAndIsThenServedFromMemory() {
+		UserProfileSnapshot snapshot = new UserProfileSnapshot();
+		snapshot.setUserId(1);
+		snapshot.setName("Ann");
+		when(snapshotRepository.findById(1)).thenReturn(Optional.of(snapshot));
+
+		profileCache.get(1);
+		profileCache.get(1);
+
+		verify(snapshotRepository, times(1)).findById(1);
+		verify(userRepository, never()).getUserProfileView(1);
+	}
+
+	@Test
+	void invalidateRewritesTheSnapshotAndEvictsTheCachedProfile() {
+		UserProfileSnapshot snapshot = new UserProfileSnapshot();
+		snapshot.setUserId(1);
+		snapshot.setName("Ann");
+		when(snapshotRepository.findById(1)).thenReturn(Optional.of(snapshot));
+		profileCache.get(1);
+
+		profileCache.invalidate(1);
+		profileCache.get(1);
+
+		var order = inOrder(snapshotRepository);
+		order.verify(snapshotRepository).deleteByUserIds(List.of(1));
+		order.verify(snapshotRepository).refreshFromView(List.of(1));
+		verify(snapshotRepository, times(2)).findById(1);
+	}
+
+	@Test
+	void unknownUsersAreNotCached() {
+		when(snapshotRepository.findById(2)).thenReturn(Optional.empty());
+		when(userRepository.getUserProfileView(2)).thenReturn(List.of());
+
+		assertThat(profileCache.get(2)).isNull();
+		assertThat(profileCache.get(2)).isNull();
+
+		verify(userRepository, times(2)).getUserProfileView(2);
+	}
+}
@@ -0,0 +1,86 @@
+package com.health.tracker.service;
+
+import com.health.tracker.dto.LoadUserRole;
+import com.health.tracker.entity.Users;
+import com.health.tracker.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTests {
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private AccountIndex accountIndex;
+
+	@Mock
+	private PrincipalCache principalCache;
+
+	@Mock
+	private ProfileCache profileCache;
+
+	@InjectMocks
+	private UserService userService;
+
+	@Test
+	void replacingAUserEvictsItsOldAndNewLogins() {
+		Users existing = user(5, "old@example.com", "0700000001");
+		Users replacement = user(5, "new@example.com", "0700000002");
+		when(userRepository.findById(5)).thenReturn(Optional.of(existing));
+		when(userRepository.save(replacement)).thenReturn(replacement);
+
+		userService.addUser(replacement);
+
+		verify(accountIndex).takenByOther("new@example.com", LoadUserRole.USER, 5);
+		verify(principalCache).invalidate("old@example.com", "0700000001", "new@example.com", "0700000002");
+		verify(profileCache).invalidate(5);
+		verify(accountIndex).index(replacement);
+	}
+
+	@Test
+	void newUserTouchesNoCache() {
+		Users user = user(0, "ann@example.com", "0700000003");
+		when(userRepository.save(user)).thenReturn(user(6, "ann@example.com", "0700000003"));
+
+		userService.addUser(user);
+
+		verify(userRepository, never()).findById(anyInt());
+		verifyNoInteractions(principalCache, profileCache);
+	}
+
+	@Test
+	void loginTakenByAnotherAccountIsRejectedBeforeSaving() {
+		Users user = user(0, "ann@example.com", "0700000003");
+		when(accountIndex.takenByOther("ann@example.com", LoadUserRole.USER, 0)).thenReturn(false);
+		when(accountIndex.takenByOther("0700000003", LoadUserRole.USER, 0)).thenReturn(true);
+
+		assertThatThrownBy(() -> userService.addUser(user))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("This Contact already exists.");
+		verify(userRepository, never()).save(any());
+		verify(accountIndex, never()).index(any(Users.class));
+	}
+
+	private static Users user(int id, String email, String contact) {
+		Users user = new Users();
+		user.setId(id);
+		user.setEmail(email);
+		user.setContact(contact);
+		return user;
+	}
+}
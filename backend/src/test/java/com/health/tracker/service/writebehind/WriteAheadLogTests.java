@@ -0,0 +1,123 @@
+package com.health.tracker.service.writebehind;
+
+import com.health.tracker.entity.Meal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteAheadLogTests {
+
+	private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void unflushedEntriesAreReplayedInOrderAfterARestart() throws IOException {
+		try (WriteAheadLog wal = open()) {
+			wal.recover(0);
+			wal.append(entry("Breakfast"));
+			wal.append(entry("Lunch"));
+			wal.append(entry("Dinner"));
+		}
+
+		try (WriteAheadLog wal = open()) {
+			List<WalEntry> recovered = wal.recover(1);
+
+			assertThat(recovered).extracting(WalEntry::getSeq).containsExactly(2L, 3L);
+			assertThat(recovered).extracting(WalEntry::getName).containsExactly("Lunch", "Dinner");
+			assertThat(recovered.get(0).toMeal().getCaloriesConsumed()).isEqualTo(500f);
+			// New entries continue the sequence instead of reusing a flushed number
+			assertThat(wal.append(entry("Snack"))).isEqualTo(4L);
+		}
+	}
+
+	@Test
+	void tornRecordEndsTheReplay() throws IOException {
+		try (WriteAheadLog wal = open()) {
+			wal.recover(0);
+			wal.append(entry("Breakfast"));
+			wal.append(entry("Lunch"));
+		}
+		// Corrupt the body of the second record, as a crash in the middle of the write would
+		Path segment = segments().get(0);
+		byte[] bytes = Files.readAllBytes(segment);
+		int second = 8 + ByteBuffer.wrap(bytes).getInt(0);
+		bytes[second + 8 + 10] ^= 0x7f;
+		Files.write(segment, bytes);
+
+		try (WriteAheadLog wal = open()) {
+			assertThat(wal.recover(0)).extracting(WalEntry::getName).containsExactly("Breakfast");
+		}
+	}
+
+	@Test
+	void flushedSegmentsAreDeleted() throws IOException {
+		try (WriteAheadLog wal = open()) {
+			wal.recover(0);
+			wal.append(entry("Breakfast"));
+		}
+		assertThat(segments()).hasSize(1);
+
+		try (WriteAheadLog wal = open()) {
+			assertThat(wal.recover(1)).isEmpty();
+			wal.append(entry("Lunch"));
+			wal.release(2);
+		}
+
+		// The old segment is gone; the active one stays until the next start
+		assertThat(segments()).extracting(path -> path.getFileName().toString())
+				.containsExactly("wal-00000000000000000002.seg");
+	}
+
+	@Test
+	void deadLettersAreKeptOneLinePerEntry() throws IOException {
+		try (WriteAheadLog wal = open()) {
+			wal.recover(0);
+			WalEntry entry = entry("Tea\twith milk");
+			wal.append(entry);
+			wal.deadLetter(entry, "Cannot add or update a child row");
+		}
+
+		assertThat(Files.readAllLines(dir.resolve("dead-letter.log"))).containsExactly(
+				"1\tMEAL\t1\t2024-01-01\t500.0\t0\tTea\\twith milk\tCannot add or update a child row");
+	}
+
+	@Test
+	void namesLongerThanTheColumnAreNotBuffered() {
+		assertThat(entry("x".repeat(WalEntry.MAX_NAME_LENGTH)).isBufferable()).isTrue();
+		assertThat(entry("x".repeat(WalEntry.MAX_NAME_LENGTH + 1)).isBufferable()).isFalse();
+		// The limit is in characters, and four-byte characters still fit the record buffer
+		assertThat(entry("🍎".repeat(WalEntry.MAX_NAME_LENGTH)).isBufferable()).isTrue();
+	}
+
+	private WriteAheadLog open() throws IOException {
+		WriteAheadLog wal = new WriteAheadLog(dir, 64 * 1024, false);
+		wal.open();
+		return wal;
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.filter(path -> path.getFileName().toString().endsWith(".seg")).sorted().toList();
+		}
+	}
+
+	private static WalEntry entry(String name) {
+		Meal meal = new Meal();
+		meal.setUserId(1);
+		meal.setMealName(name);
+		meal.setCaloriesConsumed(500);
+		meal.setDate(DAY);
+		return WalEntry.of(meal);
+	}
+}
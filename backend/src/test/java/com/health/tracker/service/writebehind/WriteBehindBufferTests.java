@@ -0,0 +1,181 @@
+package com.health.tracker.service.writebehind;
+
+import com.health.tracker.dto.UserProfileDTO;
+import com.health.tracker.entity.Meal;
+import com.health.tracker.service.ProfileCache;
+import com.health.tracker.service.ResourceVersions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindBufferTests {
+
+	private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+
+	@TempDir
+	Path dir;
+
+	@Mock
+	private WriteBehindCommitter committer;
+
+	@Mock
+	private ProfileCache profileCache;
+
+	@Mock
+	private ResourceVersions resourceVersions;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private WriteBehindBuffer buffer;
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (buffer != null) {
+			buffer.stop();
+		}
+	}
+
+	@Test
+	void entriesAfterTheCheckpointAreReplayedOnStart() throws Exception {
+		try (WriteAheadLog wal = new WriteAheadLog(dir, 64 * 1024, false)) {
+			wal.open();
+			wal.recover(0);
+			wal.append(WalEntry.of(meal("Breakfast")));
+			wal.append(WalEntry.of(meal("Lunch")));
+		}
+		when(committer.flushedSeq(anyString())).thenReturn(1L);
+
+		start(10);
+
+		assertThat(bufferedMeals(1)).extracting(Meal::getMealName).containsExactly("Lunch");
+	}
+
+	@Test
+	void readSkipsBufferedEntriesTheCheckpointItSeesCovers() throws Exception {
+		start(10);
+		assertThat(buffer.offer(meal("Breakfast"))).isTrue();
+		assertThat(buffer.offer(meal("Lunch"))).isTrue();
+		// Breakfast is committed in the snapshot the read sees but not yet removed from the buffer
+		when(committer.flushedSeq(anyString())).thenReturn(1L);
+
+		assertThat(bufferedMeals(1)).extracting(Meal::getMealName).containsExactly("Lunch");
+		assertThat(bufferedMeals(2)).isEmpty();
+	}
+
+	@Test
+	void readDoesNotWaitForACommitInProgress() throws Exception {
+		CountDownLatch committing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			committing.countDown();
+			release.await();
+			return null;
+		}).when(committer).commit(anyString(), anyList(), anyList(), anyLong());
+		start(1);
+
+		try {
+			assertThat(buffer.offer(meal("Breakfast"))).isTrue();
+			assertThat(committing.await(5, TimeUnit.SECONDS)).isTrue();
+
+			assertThat(bufferedMeals(1)).extracting(Meal::getMealName).containsExactly("Breakfast");
+		} finally {
+			release.countDown();
+		}
+		awaitFlushed();
+	}
+
+	@Test
+	void entryTheDatabaseRefusesIsDeadLetteredAndTheRestCommitted() throws Exception {
+		doAnswer(invocation -> {
+			List<Meal> meals = invocation.getArgument(1);
+			if (meals.stream().anyMatch(meal -> meal.getMealName().equals("Deleted user's lunch"))) {
+				throw new DataIntegrityViolationException("Cannot add or update a child row");
+			}
+			return null;
+		}).when(committer).commit(anyString(), anyList(), anyList(), anyLong());
+		start(3);
+
+		assertThat(buffer.offer(meal("Breakfast"))).isTrue();
+		assertThat(buffer.offer(meal("Deleted user's lunch"))).isTrue();
+		assertThat(buffer.offer(meal("Dinner"))).isTrue();
+		awaitFlushed();
+
+		// The whole batch, then each entry on its own; the refused one only moves the checkpoint
+		verify(committer).commit(anyString(), anyList(), anyList(), eq(1L));
+		verify(committer).commit(anyString(), eq(List.of()), eq(List.of()), eq(2L));
+		verify(committer, times(2)).commit(anyString(), anyList(), anyList(), eq(3L));
+		assertThat(Files.readString(dir.resolve("dead-letter.log")))
+				.startsWith("2\tMEAL\t1\t2024-01-01\t500.0\t0\tDeleted user's lunch\t");
+	}
+
+	@Test
+	void mealsWithAnIdOrAnOverlongNameGoThroughTheSynchronousPath() throws Exception {
+		start(10);
+
+		Meal withId = meal("Lunch");
+		withId.setMealId(7);
+
+		assertThat(buffer.offer(withId)).isFalse();
+		assertThat(buffer.offer(meal("x".repeat(WalEntry.MAX_NAME_LENGTH + 1)))).isFalse();
+		assertThat(buffer.pendingCount()).isZero();
+	}
+
+	private void start(int batchSize) throws IOException {
+		// A long interval, so batches only flush once batchSize entries are pending
+		buffer = new WriteBehindBuffer(true, dir.toString(), 64 * 1024, false, batchSize, 60_000, 100);
+		ReflectionTestUtils.setField(buffer, "committer", committer);
+		ReflectionTestUtils.setField(buffer, "profileCache", profileCache);
+		ReflectionTestUtils.setField(buffer, "resourceVersions", resourceVersions);
+		ReflectionTestUtils.setField(buffer, "transactionManager", transactionManager);
+		lenient().when(profileCache.get(1)).thenReturn(new UserProfileDTO());
+		buffer.start();
+	}
+
+	private void awaitFlushed() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (buffer.pendingCount() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(buffer.pendingCount()).isZero();
+	}
+
+	private List<Meal> bufferedMeals(int userId) {
+		return buffer.read(userId, pending -> pending.meals(DAY));
+	}
+
+	private static Meal meal(String name) {
+		Meal meal = new Meal();
+		meal.setUserId(1);
+		meal.setMealName(name);
+		meal.setCaloriesConsumed(500);
+		meal.setDate(DAY);
+		return meal;
+	}
+}
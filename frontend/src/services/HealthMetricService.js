@@ -41,7 +41,7 @@ export const getHealthProgress = (userId) => {
 };
 
 /**
- * Gets the user's calories consumed vs. burned data (uses MySQL VIEW: calories_consumed_burned_view).
+ * Gets the user's calories consumed vs. burned data, one row per day with meals or exercise.
  * @param {number} userId
  */
 export const getCaloriesConsumedBurned = (userId) => {